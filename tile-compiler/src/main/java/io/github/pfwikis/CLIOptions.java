@@ -2,6 +2,8 @@ package io.github.pfwikis;
 
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.beust.jcommander.Parameter;
 
@@ -15,6 +17,28 @@ public class CLIOptions {
     private boolean prodDetail = false;
     @Parameter(names = "-mappingDataFile")
     private File mappingDataFile = new File("../../mapping-data/mapping-data.gpkg");
+    @Parameter(names = "-cacheDirectory", description = "Directory used to cache step results between runs")
+    private File cacheDirectory = null;
+    @Parameter(names = "-target", description = "Groups to build, defaults to all")
+    private List<String> targets = new ArrayList<>();
+    @Parameter(names = "-only", description = "Groups that changed, everything else is taken from the cache")
+    private List<String> only = new ArrayList<>();
+    @Parameter(names = "-traceFile", description = "Writes a chrome trace of the run to this file")
+    private File traceFile = null;
+    @Parameter(names = "-failFast", description = "Cancels the whole run as soon as one step failed")
+    private boolean failFast = false;
+    @Parameter(names = "-batchSlices", description = "Processes all time slices of batchable steps in one tool call")
+    private boolean batchSlices = false;
+    @Parameter(names = "-compressResults", description = "Keeps in-memory results with many consumers compressed")
+    private boolean compressResults = false;
+    @Parameter(names = "-mapshaperWorkers", description = "Runs mapshaper in this many long-lived processes instead of one per call")
+    private int mapshaperWorkers = 0;
+    @Parameter(names = "-qgisWorkers", description = "Runs QGIS algorithms in this many long-lived PyQGIS processes instead of one qgis_process per call")
+    private int qgisWorkers = 0;
+    @Parameter(names = "-cacheTools", description = "Also caches the outputs of single tool calls in the cache directory")
+    private boolean cacheTools = false;
+    @Parameter(names = "-pipeTools", description = "Passes in-memory data to tools through stdin and stdout instead of temporary files where possible")
+    private boolean pipeTools = false;
 	
     public File targetDirectory() {
 		return new File("../frontend/public");
@@ -23,4 +47,8 @@ public class CLIOptions {
     public File targetGenDirectory() {
 		return new File("../frontend/gen");
 	}
+    
+    public File timingsFile() {
+		return new File("step-timings.json");
+	}
 }
@@ -18,9 +18,12 @@ import com.github.dexecutor.core.graph.LevelOrderTraversar;
 import com.github.dexecutor.core.graph.StringTraversarAction;
 import com.github.dexecutor.core.task.ExecutionResults;
 
+import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.description.ExecutionPlan;
+import io.github.pfwikis.layercompiler.description.StepTimings;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
 import io.github.pfwikis.run.Runner;
+import io.github.pfwikis.util.Trace;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -29,10 +32,15 @@ public class LayersCompiler {
     public void compile() throws Exception {
     	
         var pool = Executors.newVirtualThreadPerTaskExecutor();
+        boolean failed = false;
 
         try {
         	
         	var plan = ExecutionPlan.parseFromFile();
+        	var options = Ctx.INSTANCE.getOptions();
+        	plan.prune(options.getTargets(), options.getOnly());
+        	var timings = StepTimings.load(options.timingsFile());
+        	plan.applyTimings(timings);
         	
             var config = new DexecutorConfig<String, Content>(pool, id-> plan.getStep(id).getExecutor());
             var executor = new DefaultDexecutor<>(config);
@@ -42,7 +50,7 @@ public class LayersCompiler {
     		executor.print(new LevelOrderTraversar<>(), new StringTraversarAction<>(sb));
     		log.info("Execution plan:\n{}", sb.toString());
     
-            var results = executor.execute(ExecutionConfig.NON_TERMINATING);
+            var results = executor.execute(options.isFailFast()?ExecutionConfig.TERMINATING:ExecutionConfig.NON_TERMINATING);
             if(!results.getErrored().isEmpty()) {
                 log.error("Failed executions:\n{}",
             		results.getErrored()
@@ -50,17 +58,35 @@ public class LayersCompiler {
             		.map(er->er.getId()+": "+er.getMessage())
             		.collect(Collectors.joining("\n"))
             	);
-                System.exit(-1);
+                failed = true;
+            } else {
+            	printTimings(results, plan);
+            	saveTimings(results, plan, timings);
             }
-            printTimings(results, plan);
             
         } finally {
             pool.shutdown();
             pool.awaitTermination(1, TimeUnit.DAYS);
+            Runner.stopWorkers();
             FileUtils.deleteQuietly(Runner.TMP_DIR);
+            if(Ctx.INSTANCE.getOptions().getTraceFile() != null)
+            	Trace.write(Ctx.INSTANCE.getOptions().getTraceFile());
         }
+        //exit only after the cleanup above, System.exit skips finally blocks
+        if(failed)
+        	System.exit(-1);
     }
 
+	private void saveTimings(ExecutionResults<String, Content> results, ExecutionPlan plan, StepTimings timings) {
+		for(var result:results.getSuccess()) {
+			//cached results say nothing about how long the step actually takes
+			if(plan.getStep(result.getId()).getExecutor().isCached())
+				continue;
+			timings.put(result.getId(), Duration.between(result.getStartTime(), result.getEndTime()));
+		}
+		timings.save(Ctx.INSTANCE.getOptions().timingsFile());
+	}
+
 	private static class Timings {
     	private Duration time=Duration.ZERO;
     	private Map<String, Duration> subtimes = new HashMap<>();
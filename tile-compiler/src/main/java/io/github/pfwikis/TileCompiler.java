@@ -1,7 +1,14 @@
 package io.github.pfwikis;
 
+import java.io.File;
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.OperatingSystemMXBean;
+
 import io.github.pfwikis.layercompiler.description.Ctx;
+import io.github.pfwikis.layercompiler.steps.model.StepCache;
 import io.github.pfwikis.run.Runner;
+import io.github.pfwikis.util.Trace;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -11,11 +18,33 @@ public class TileCompiler {
 
     public void run(CLIOptions options) throws Exception {
     	Ctx.INSTANCE.setOptions(options);
+    	if(options.getTraceFile() != null) {
+    		Trace.enable();
+    	}
+    	//builds of changed groups take everything else from the cache
+    	if(options.getCacheDirectory() == null && !options.getOnly().isEmpty()) {
+    		throw new IllegalArgumentException("-only requires a -cacheDirectory");
+    	}
+    	if(options.getCacheDirectory() != null) {
+    		Ctx.INSTANCE.setStepCache(new StepCache(options.getCacheDirectory()));
+    		if(options.isCacheTools())
+    			Runner.useToolCache(new File(options.getCacheDirectory(), "tools"));
+    	}
 
         //create target folders
         options.targetDirectory().mkdirs();
 
-        Runner.setMaximumParallelism(Math.min(4, Runtime.getRuntime().availableProcessors()));
+        //everything the JVM does not reserve for its heap can be used by external tools
+        var os = (OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        long toolMemory = os.getTotalMemorySize()-Runtime.getRuntime().maxMemory();
+        Runner.setAvailableResources(
+        	Runtime.getRuntime().availableProcessors(),
+        	Math.max(toolMemory, 1L<<30)
+        );
+        Runner.useMapshaperWorkers(options.getMapshaperWorkers());
+        Runner.useQgisWorkers(options.getQgisWorkers());
+        if(options.isPipeTools())
+        	Runner.usePipes();
         new LayersCompiler().compile();
     }
 }
@@ -25,8 +25,8 @@ public class AddDetails {
         var loops = collectLoops(col);
         log.info("    found " + loops.size() + " loops");
         log.info("    collect inner edges");
-        var innerEdges = collectInnerEdges(loops);
-        innerEdges = innerEdges.stream().map(e->new Edge(
+        //packed only after projecting, exactly like FractalLines does with the points it looks up
+        var innerEdges = collectInnerEdges(loops).stream().map(e->Edge.of(
             new LngLat(e.a().lng(), Projection.geoToMercator(e.a().lat())),
             new LngLat(e.b().lng(), Projection.geoToMercator(e.b().lat()))
         )).collect(Collectors.toSet());
@@ -48,25 +48,29 @@ public class AddDetails {
         return col;
     }
 
-    private static Set<Edge> collectInnerEdges(List<List<LngLat>> loops) {
+    private record InnerEdge(LngLat a, LngLat b) {}
+
+    private static Set<InnerEdge> collectInnerEdges(List<List<LngLat>> loops) {
         var edges = new HashSet<Edge>();
-        var innerEdges = new HashSet<Edge>();
+        var innerEdges = new HashSet<InnerEdge>();
 
         for (var loop : loops) {
             for (int i = 0; i < loop.size() - 1; i++) {
-                Edge e1 = new Edge(loop.get(i), loop.get(i + 1));
+                Edge e1 = Edge.of(loop.get(i), loop.get(i + 1));
+                var i1 = new InnerEdge(loop.get(i), loop.get(i + 1));
                 if (!edges.add(e1.norm())) {
-                    innerEdges.add(e1);
+                    innerEdges.add(i1);
                 }
-                Edge e2 = new Edge(loop.get(i + 1), loop.get(i));
+                Edge e2 = Edge.of(loop.get(i + 1), loop.get(i));
+                var i2 = new InnerEdge(loop.get(i + 1), loop.get(i));
                 if (!edges.add(e2.norm())) {
-                    innerEdges.add(e2);
+                    innerEdges.add(i2);
                 }
 
                 //prevent fractal details on the poles
-                if(Math.abs(e1.a().lat())>88 || Math.abs(e1.b().lat())>88) {
-                    innerEdges.add(e1);
-                    innerEdges.add(e2);
+                if(Math.abs(loop.get(i).lat())>88 || Math.abs(loop.get(i + 1).lat())>88) {
+                    innerEdges.add(i1);
+                    innerEdges.add(i2);
                 }
             }
         }
@@ -36,7 +36,7 @@ public class FractalLines {
     }
 
     private static boolean isInnerEdge(LngLat a, LngLat b, Set<Edge> innerEdges) {
-        return innerEdges.contains(new Edge(a, b)) || (a.lng() == 180.0 && b.lng() == 180.0) || (a.lng() == -180.0 && b.lng() == -180.0);
+        return innerEdges.contains(Edge.of(a, b)) || (a.lng() == 180.0 && b.lng() == 180.0) || (a.lng() == -180.0 && b.lng() == -180.0);
     }
 
     private static void collectFractally(LngLat a, LngLat b, int iterations, List<LngLat> result) {
@@ -1,6 +1,7 @@
 package io.github.pfwikis.layercompiler.description;
 
 import io.github.pfwikis.CLIOptions;
+import io.github.pfwikis.layercompiler.steps.model.StepCache;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,4 +12,6 @@ public enum Ctx {
 	
 	@Setter
     private CLIOptions options;
+	@Setter
+	private StepCache stepCache;
 }
\ No newline at end of file
@@ -1,22 +1,31 @@
 package io.github.pfwikis.layercompiler.description;
 
 import java.io.File;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.github.dexecutor.core.Dexecutor;
 import com.google.common.graph.ElementOrder;
+import com.google.common.graph.Graphs;
 import com.google.common.graph.MutableNetwork;
 import com.google.common.graph.NetworkBuilder;
 
+import io.github.pfwikis.layercompiler.steps.model.PrunedStep;
+import io.github.pfwikis.layercompiler.steps.model.ResultReleaser;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import tools.jackson.dataformat.yaml.YAMLMapper;
 
+@Slf4j
 public class ExecutionPlan {
 	
 	public static record Edge(String id, StepDescription from, StepDescription to) {}
@@ -46,6 +55,7 @@ public class ExecutionPlan {
                     throw new IllegalStateException("Duplicate name "+id);
                 }
                 var descr = new StepDescription(id, lsDescription.getName(), rawStep.getStep(), rawStep.createStep());
+                descr.setConfig(rawStep.getUnknownFields());
                 descr.getExecutor().setDescription(descr);
                 plan.id2Step.put(id, descr);
                 raw2Step.put(rawStep, descr);
@@ -125,8 +135,121 @@ public class ExecutionPlan {
 		return Objects.requireNonNull(id2Step.get(id), "Could not resolve step "+id);
 	}
 
+	/**
+	 * Reduces the plan to the steps needed to build the target groups. If changed groups
+	 * are given only the steps that depend on them or that they depend on are kept. Steps
+	 * outside of this selection that still provide inputs are replaced by {@link PrunedStep}s.
+	 */
+	public void prune(List<String> targets, List<String> changed) {
+		if(targets.isEmpty() && changed.isEmpty())
+			return;
+		
+		var graph = this.graph.asGraph();
+		var reversed = Graphs.transpose(graph);
+		
+		Set<StepDescription> keep = new HashSet<>();
+		if(targets.isEmpty()) {
+			keep.addAll(graph.nodes());
+		}
+		else {
+			for(var target:groupSteps(targets)) {
+				keep.addAll(Graphs.reachableNodes(reversed, target));
+			}
+		}
+		
+		if(!changed.isEmpty()) {
+			Set<StepDescription> related = new HashSet<>();
+			for(var step:groupSteps(changed)) {
+				related.addAll(Graphs.reachableNodes(reversed, step));
+				related.addAll(Graphs.reachableNodes(graph, step));
+			}
+			keep.retainAll(related);
+		}
+		
+		Set<StepDescription> stubs = new HashSet<>();
+		for(var step:keep) {
+			for(var pred:graph.predecessors(step)) {
+				if(!keep.contains(pred))
+					stubs.add(pred);
+			}
+		}
+		
+		for(var step:List.copyOf(this.graph.nodes())) {
+			if(stubs.contains(step)) {
+				replaceWithStub(step, keep);
+			}
+			else if(!keep.contains(step)) {
+				this.graph.removeNode(step);
+				id2Step.remove(step.getId());
+			}
+		}
+		log.info("Pruned plan to {} steps of which {} are taken from the cache", this.graph.nodes().size(), stubs.size());
+	}
+
+	private void replaceWithStub(StepDescription step, Set<StepDescription> keep) {
+		var stub = new StepDescription(step.getId(), step.getGroup(), step.getStep(), new PrunedStep());
+		stub.setTimeRequirement(Time.Requirement.Value.ANY);
+		stub.getExecutor().setDescription(stub);
+		
+		var outEdges = this.graph.outEdges(step)
+			.stream()
+			.filter(e->keep.contains(e.to()))
+			.toList();
+		this.graph.removeNode(step);
+		this.graph.addNode(stub);
+		for(var e:outEdges) {
+			this.graph.addEdge(stub, e.to(), new Edge(e.id(), stub, e.to()));
+		}
+		id2Step.put(stub.getId(), stub);
+	}
+
+	private List<StepDescription> groupSteps(List<String> groups) {
+		var result = new ArrayList<StepDescription>();
+		for(var group:groups) {
+			var steps = graph.nodes().stream().filter(n->n.getGroup().equals(group)).toList();
+			if(steps.isEmpty())
+				throw new IllegalArgumentException("Unknown group "+group);
+			result.addAll(steps);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes the critical path of every step from the durations of previous runs.
+	 * Steps without a known duration are assumed to take {@link #UNKNOWN_DURATION}.
+	 */
+	public void applyTimings(StepTimings timings) {
+		var done = new HashMap<StepDescription, Duration>();
+		for(var step:graph.nodes()) {
+			calculateCriticalPath(step, timings, done);
+		}
+	}
+
+	private static final Duration UNKNOWN_DURATION = Duration.ofSeconds(1);
+	private Duration calculateCriticalPath(StepDescription step, StepTimings timings, Map<StepDescription, Duration> done) {
+		var known = done.get(step);
+		if(known != null)
+			return known;
+		var longestSuccessor = Duration.ZERO;
+		for(var succ:graph.successors(step)) {
+			var path = calculateCriticalPath(succ, timings, done);
+			if(path.compareTo(longestSuccessor) > 0)
+				longestSuccessor = path;
+		}
+		var result = timings.get(step.getId()).orElse(UNKNOWN_DURATION).plus(longestSuccessor);
+		step.setCriticalPath(result);
+		done.put(step, result);
+		return result;
+	}
+
 	public void createExecutions(Dexecutor<String, Content> executor) {
+		var consumers = new HashMap<String, Integer>();
+		for(var n:graph.nodes()) {
+			consumers.put(n.getId(), graph.outDegree(n));
+		}
+		var releaser = new ResultReleaser(consumers);
 		for(var n:graph.nodes()) {
+			n.getExecutor().setReleaser(releaser);
 			executor.addIndependent(n.getId());
 		}
 		for(var e:graph.edges()) {
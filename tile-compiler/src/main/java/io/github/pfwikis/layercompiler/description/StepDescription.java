@@ -1,10 +1,14 @@
 package io.github.pfwikis.layercompiler.description;
 
+import java.time.Duration;
+
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
+import io.github.pfwikis.util.Jackson;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
+import tools.jackson.databind.node.ObjectNode;
 
 @Getter @Setter
 @RequiredArgsConstructor
@@ -14,4 +18,8 @@ public class StepDescription {
 	private final String step;
 	private final StepExecutor executor;
 	private Time.Requirement.Value timeRequirement;
+	/*the raw yaml configuration of this step, used for fingerprinting*/
+	private ObjectNode config = Jackson.JSON.getNodeFactory().objectNode();
+	/*expected time from starting this step until all steps depending on it are done*/
+	private Duration criticalPath = Duration.ZERO;
 }
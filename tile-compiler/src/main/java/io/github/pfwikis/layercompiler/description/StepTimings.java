@@ -0,0 +1,48 @@
+package io.github.pfwikis.layercompiler.description;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import io.github.pfwikis.util.Jackson;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durations of steps measured in previous runs, keyed by step id.
+ */
+@Slf4j
+public class StepTimings {
+
+	private final TreeMap<String, Long> millis = new TreeMap<>();
+
+	public static StepTimings load(File file) {
+		var res = new StepTimings();
+		if(!file.isFile())
+			return res;
+		try {
+			Map<String, Long> raw = Jackson.JSON.readerForMapOf(Long.class).readValue(file);
+			res.millis.putAll(raw);
+		} catch(Exception e) {
+			log.warn("Could not read step timings from {}", file, e);
+		}
+		return res;
+	}
+
+	public void save(File file) {
+		try {
+			Jackson.JSON.writerWithDefaultPrettyPrinter().writeValue(file, millis);
+		} catch(Exception e) {
+			log.warn("Could not write step timings to {}", file, e);
+		}
+	}
+
+	public Optional<Duration> get(String stepId) {
+		return Optional.ofNullable(millis.get(stepId)).map(Duration::ofMillis);
+	}
+
+	public void put(String stepId, Duration duration) {
+		millis.put(stepId, duration.toMillis());
+	}
+}
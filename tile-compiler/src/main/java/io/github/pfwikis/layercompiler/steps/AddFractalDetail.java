@@ -9,6 +9,7 @@ import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
+import io.github.pfwikis.run.Runner;
 
 @Time.Requirement(Time.Requirement.Value.ANY)
 public class AddFractalDetail extends StepExecutor {
@@ -19,7 +20,10 @@ public class AddFractalDetail extends StepExecutor {
         
         //LCContent.MAPPER.writeValue(new File("debug/"+this.getName()+"_in.json"), getInput().toFeatureCollection());
         
-        var result = GeoData.from(AddDetails.addDetails(maxDistance, in.getInput().toFeatureCollection()));
+        GeoData result;
+        try(var _=Runner.reserveCpu(this)) {
+        	result = GeoData.from(AddDetails.addDetails(maxDistance, in.getInput().toFeatureCollection()));
+        }
         
         //LCContent.MAPPER.writeValue(new File("debug/"+this.getName()+"_out.json"), result.toFeatureCollection());
         
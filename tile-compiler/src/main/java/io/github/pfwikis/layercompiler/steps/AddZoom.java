@@ -6,7 +6,6 @@ import io.github.pfwikis.layercompiler.steps.model.Inputs;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
-import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import lombok.RequiredArgsConstructor;
 
 @Time.Requirement(Time.Requirement.Value.ANY)
@@ -18,15 +17,14 @@ public class AddZoom extends StepExecutor {
 
     @Override
     public Content process(Inputs in) throws IOException {
-    	var fc = in.getInput().toFeatureCollection();
-    	fc.getFeatures().forEach(f-> {
+    	var res = in.getInput().mapProperties(p-> {
     		if(minZoom != null) {
-    			f.getProperties().setMinzoom(minZoom);
+    			p.setMinzoom(minZoom);
             }
     		if(maxZoom != null) {
-    			f.getProperties().setMaxzoom(maxZoom);
+    			p.setMaxzoom(maxZoom);
             }
     	});
-        return Content.derivedFrom(in, GeoData.from(fc));
+        return Content.derivedFrom(in, res);
     }
 }
@@ -3,6 +3,7 @@ package io.github.pfwikis.layercompiler.steps;
 import java.io.IOException;
 
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
+import io.github.pfwikis.layercompiler.steps.model.MapshaperBatchable;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
@@ -37,26 +38,36 @@ public class BorderVariants {
     }
     
 	@Time.Requirement(Time.Requirement.Value.REQUIRES_SLICED)
-    public static class DistrictBorders extends StepExecutor {
+    public static class DistrictBorders extends StepExecutor implements MapshaperBatchable {
 		@Override
 		public Content process(Inputs in) throws Exception {
-			return Content.timeless(Tools.mapshaper(this, in.getInput(),
-	                "-lines",
-	                "-dissolve"
-	            ));
+			return Content.timeless(Tools.mapshaper(this, in.getInput(), mapshaperCommands()));
+		}
+
+		@Override
+		public Object[] mapshaperCommands() {
+			return new Object[] {
+                "-lines",
+                "-dissolve"
+            };
 		}
     }
 
 	@Time.Requirement(Time.Requirement.Value.REQUIRES_SLICED)
-    public static class Nations extends StepExecutor {
+    public static class Nations extends StepExecutor implements MapshaperBatchable {
 		@Override
 		public Content process(Inputs in) throws Exception {
-			return Content.timeless(Tools.mapshaper(this, in.getInput(),
+			return Content.timeless(Tools.mapshaper(this, in.getInput(), mapshaperCommands()));
+		}
+
+		@Override
+		public Object[] mapshaperCommands() {
+			return new Object[] {
                 "-filter", "Boolean(nation)",
                 "-each", "inSubregion=Boolean(subregion)",
                 "-rename-fields", "label=nation",
                 "-dissolve", "label", "copy-fields=inSubregion"
-            ));
+            };
 		}
     }
 
@@ -79,14 +90,19 @@ public class BorderVariants {
     }
 
 	@Time.Requirement(Time.Requirement.Value.REQUIRES_SLICED)
-    public static class Subregions extends StepExecutor {
+    public static class Subregions extends StepExecutor implements MapshaperBatchable {
 		@Override
 		public Content process(Inputs in) throws Exception {
-			return Content.timeless(Tools.mapshaper(this, in.getInput(),
+			return Content.timeless(Tools.mapshaper(this, in.getInput(), mapshaperCommands()));
+		}
+
+		@Override
+		public Object[] mapshaperCommands() {
+			return new Object[] {
                 "-filter", "Boolean(subregion)",
                 "-rename-fields", "label=subregion",
                 "-dissolve", "label"
-            ));
+            };
 		}
     }
 
@@ -110,27 +126,37 @@ public class BorderVariants {
     }
 
 	@Time.Requirement(Time.Requirement.Value.REQUIRES_SLICED)
-    public static class Regions extends StepExecutor {
+    public static class Regions extends StepExecutor implements MapshaperBatchable {
 		@Override
 		public Content process(Inputs in) throws Exception {
-			var regions = Tools.mapshaper(this, in.getInput(),
+			var regions = Tools.mapshaper(this, in.getInput(), mapshaperCommands());
+            return Content.timeless(regions);
+		}
+
+		@Override
+		public Object[] mapshaperCommands() {
+			return new Object[] {
                 "-filter", "Boolean(region)",
                 "-rename-fields", "label=region",
                 "-dissolve", "label"
-            );
-            return Content.timeless(regions);
+            };
 		}
     }
 
 	@Time.Requirement(Time.Requirement.Value.REQUIRES_SLICED)
-    public static class RegionBorders extends StepExecutor {
+    public static class RegionBorders extends StepExecutor implements MapshaperBatchable {
 		@Override
 		public Content process(Inputs in) throws Exception {
-			return Content.timeless(Tools.mapshaper(this, in.getInput(),
+			return Content.timeless(Tools.mapshaper(this, in.getInput(), mapshaperCommands()));
+		}
+
+		@Override
+		public Object[] mapshaperCommands() {
+			return new Object[] {
                 "-filter", "Boolean(region)",
                 "-dissolve", "region",
                 "-innerlines"
-            ));
+            };
 		}
     }
 }
@@ -6,6 +6,7 @@ import io.github.pfwikis.layercompiler.steps.model.Inputs;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
+import io.github.pfwikis.run.GeoFormat;
 import io.github.pfwikis.run.Tools;
 
 @Time.Requirement(Time.Requirement.Value.REQUIRES_SLICED)
@@ -13,12 +14,13 @@ public class BufferPolygons extends StepExecutor {
 
     @Override
     public Content process(Inputs in) throws IOException {
-        var buffered = Tools.qgis(this, "native:buffer", in.getInput(),
+        //the intermediate results only go from tool to tool
+        var buffered = Tools.qgis(this, "native:buffer", "OUTPUT", GeoFormat.FLATGEOBUF, in.getInput(),
             "--DISTANCE=0.5",
             "--SEGMENTS=20",
             "--END_CAP_STYLE=0", "--JOIN_STYLE=0", "--MITER_LIMIT=2",
             "--DISSOLVE=true");
-        var reduced = Tools.mapshaper(this, buffered, "-dissolve", "-filter-fields", "-explode", "-simplify", "percentage=0.3", "keep-shapes");
+        var reduced = Tools.mapshaper(this, GeoFormat.FLATGEOBUF, buffered, "-dissolve", "-filter-fields", "-explode", "-simplify", "percentage=0.3", "keep-shapes");
         var smooth = Tools.qgis(this, "native:smoothgeometry", reduced,
             "--ITERATIONS=3",
             "--OFFSET=0.3",
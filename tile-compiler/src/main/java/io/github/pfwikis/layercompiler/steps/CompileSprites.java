@@ -4,6 +4,7 @@ import java.io.File;
 
 import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
+import io.github.pfwikis.layercompiler.steps.model.StepCache;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
@@ -11,6 +12,7 @@ import io.github.pfwikis.run.Tools;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
+@StepCache.Uncacheable
 @Time.Requirement(Time.Requirement.Value.ANY)
 public class CompileSprites extends StepExecutor {
 	
@@ -3,7 +3,6 @@ package io.github.pfwikis.layercompiler.steps;
 import java.io.File;
 import java.util.List;
 import java.util.Objects;
-import java.util.function.DoubleUnaryOperator;
 
 import org.apache.commons.lang3.tuple.Pair;
 
@@ -17,13 +16,10 @@ import com.onthegomap.planetiler.reader.SourceFeature;
 import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.description.StepDescription;
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
+import io.github.pfwikis.layercompiler.steps.model.StepCache;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
-import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
-import io.github.pfwikis.model.FeatureCollection;
-import io.github.pfwikis.model.Geometry;
-import io.github.pfwikis.model.LngLat;
 import io.github.pfwikis.model.Properties;
 import io.github.pfwikis.model.Properties.ExportProperties;
 import lombok.Getter;
@@ -32,6 +28,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Getter @Setter
+@StepCache.Uncacheable
 @Time.Requirement(Time.Requirement.Value.REQUIRES_MERGED)
 public class CompileTiles extends StepExecutor {
 	
@@ -65,8 +62,8 @@ public class CompileTiles extends StepExecutor {
     	in.getInputs().entrySet()
 			.stream()
 			.filter(l->!l.getKey().equals("time-meta"))
-			.map(e->Pair.of(e.getKey(), shift(e.getValue().toFeatureCollection())))
-			.forEach(e->planetiler.addGeoJsonSource(e.getKey(), GeoData.from(e.getValue()).toTmpFile(this)));
+			.map(e->Pair.of(e.getKey(), e.getValue().mapCoordinates(CompileTiles::shift)))
+			.forEach(e->planetiler.addGeoJsonSource(e.getKey(), e.getValue().toTmpFile(this)));
     	planetiler.setOutput(new File(Ctx.INSTANCE.getOptions().targetDirectory(), filename+"."+extension).toPath());
     	planetiler.setProfile(new Profile() {
 
@@ -111,23 +108,19 @@ public class CompileTiles extends StepExecutor {
     }
     
     //hopefully this is just a temporary workaround until planetiler fixes https://github.com/onthegomap/planetiler/issues/1588
-    private FeatureCollection shift(FeatureCollection fc) {
-    	for(var f:fc.getFeatures()) {
-    		if(f.getGeometry().streamPoints().allMatch(p->p.lng()>180)) {
-    			f.setGeometry(translate(f.getGeometry(), ln->ln-360));
-    		}
-    		if(f.getGeometry().streamPoints().allMatch(p->p.lng()<-180)) {
-    			f.setGeometry(translate(f.getGeometry(), ln->ln+360));
-    		}
+    private static void shift(double[] coordinates, int from, int to) {
+    	boolean allEast = true;
+    	boolean allWest = true;
+    	for(int i=from;i<to;i+=2) {
+    		allEast &= coordinates[i]>180;
+    		allWest &= coordinates[i]<-180;
+    	}
+    	if(!allEast && !allWest)
+    		return;
+    	double delta = allEast?-360:360;
+    	for(int i=from;i<to;i+=2) {
+    		coordinates[i]+=delta;
     	}
-		return fc;
-	}
-
-	private <T> Geometry translate(Geometry geometry, DoubleUnaryOperator lngChanger) {
-		geometry.transformPoints(p->
-			new LngLat(lngChanger.applyAsDouble(p.lng()), p.lat())
-		);
-		return geometry;
 	}
 
 	@Override
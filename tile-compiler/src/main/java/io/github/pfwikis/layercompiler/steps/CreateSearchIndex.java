@@ -7,8 +7,9 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Objects;
+import java.util.Map;
 import java.util.Vector;
 import java.util.stream.Collectors;
 import java.util.zip.GZIPOutputStream;
@@ -20,12 +21,12 @@ import com.fasterxml.jackson.annotation.JsonUnwrapped;
 
 import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
+import io.github.pfwikis.layercompiler.steps.model.StepCache;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import io.github.pfwikis.layercompiler.steps.time.TimeMetaCollect.TimeMeta;
-import io.github.pfwikis.model.FeatureCollection;
 import io.github.pfwikis.model.LngLat;
 import io.github.pfwikis.run.Tools;
 import io.github.pfwikis.util.Jackson;
@@ -36,6 +37,7 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
+@StepCache.Uncacheable
 @Time.Requirement(Time.Requirement.Value.REQUIRES_MERGED)
 public class CreateSearchIndex extends StepExecutor {
 
@@ -86,32 +88,46 @@ public class CreateSearchIndex extends StepExecutor {
     	return Content.empty();
     }
 
+	/*bounds and area of a label during a time, collected feature by feature*/
+	private static class Extent {
+		private final DoubleSummaryStatistics lng = new DoubleSummaryStatistics();
+		private final DoubleSummaryStatistics lat = new DoubleSummaryStatistics();
+		private Double areaM2;
+		
+		private void add(LngLat p) {
+			lng.accept(p.lng());
+			lat.accept(p.lat());
+		}
+	}
+
 	private ArrayList<Result> processLayer(TimeMeta meta, String layerName, GeoData content) throws IOException {
-		FeatureCollection withArea;
+		GeoData withArea;
 		if(layerName.equals("cities") || layerName.equals("locations")) {
-			withArea = content.toFeatureCollection();
+			withArea = content;
 		} else {
 			withArea = Tools.qgis(this, "native:fieldcalculator", content,
 				"--FIELD_NAME=areaM2",
 				"--FIELD_TYPE=0", //double
 				"--FORMULA=$area"
-			).toFeatureCollection();
+			);
 		}
 		
-		var perId = withArea.getFeatures()
-			.stream()
-			.filter(f->f.getProperties().getLabel()!=null)
-			.peek(f-> {
-				if(
-					f.getProperties().getLabels() != null
-					|| StringUtils.isBlank(f.getProperties().getLabel().identifier())
-				)
-					throw new IllegalStateException("Unresolved labels in layer "+layerName+" in "+f.getProperties());
-			})
-			.collect(Collectors.groupingBy(
-				f->f.getProperties().getLabel().identifier(),
-				Collectors.groupingBy(f->f.getProperties().getTime())
-			));
+		var perId = new HashMap<String, Map<TimeRange, Extent>>();
+		withArea.forEachFeature(f-> {
+			if(f.getProperties().getLabel()==null)
+				return;
+			if(
+				f.getProperties().getLabels() != null
+				|| StringUtils.isBlank(f.getProperties().getLabel().identifier())
+			)
+				throw new IllegalStateException("Unresolved labels in layer "+layerName+" in "+f.getProperties());
+			var extent = perId
+				.computeIfAbsent(f.getProperties().getLabel().identifier(), _->new HashMap<>())
+				.computeIfAbsent(f.getProperties().getTime(), _->new Extent());
+			f.getGeometry().streamPoints().forEach(extent::add);
+			if(extent.areaM2 == null)
+				extent.areaM2 = f.getProperties().getAreaM2();
+		});
 		
 		var results = new ArrayList<Result>();
 		for(var idEntry:perId.entrySet()) {
@@ -119,13 +135,9 @@ public class CreateSearchIndex extends StepExecutor {
 			var timedResults = TimeMap.<Data>create();
 			
 			for(var e:idEntry.getValue().entrySet()) {
-				var time = e.getKey();
-				var lngInfo = e.getValue().stream().flatMap(f->f.getGeometry().streamPoints()).collect(Collectors.summarizingDouble(LngLat::lng));
-				var latInfo = e.getValue().stream().flatMap(f->f.getGeometry().streamPoints()).collect(Collectors.summarizingDouble(LngLat::lat));
-				var areaM2 = e.getValue().stream().map(f->f.getProperties().getAreaM2()).filter(Objects::nonNull).findAny().orElse(null);
-				timedResults.put(time, new Data(
-					toArray(lngInfo, latInfo),
-					areaM2
+				timedResults.put(e.getKey(), new Data(
+					toArray(e.getValue().lng, e.getValue().lat),
+					e.getValue().areaM2
 				));
 			}
 			
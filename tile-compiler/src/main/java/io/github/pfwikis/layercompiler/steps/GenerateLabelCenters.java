@@ -12,8 +12,6 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.locationtech.jts.algorithm.hull.ConcaveHullOfPolygons;
-import org.locationtech.jts.io.geojson.GeoJsonReader;
-import org.locationtech.jts.io.geojson.GeoJsonWriter;
 
 import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
@@ -23,12 +21,11 @@ import io.github.pfwikis.layercompiler.steps.model.content.Content;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import io.github.pfwikis.model.Feature;
 import io.github.pfwikis.model.FeatureCollection;
-import io.github.pfwikis.model.Geometry;
 import io.github.pfwikis.model.Geometry.Point;
 import io.github.pfwikis.model.LngLat;
 import io.github.pfwikis.model.Properties;
 import io.github.pfwikis.run.Tools;
-import io.github.pfwikis.util.Jackson;
+import io.github.pfwikis.util.JtsBridge;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -186,13 +183,6 @@ public class GenerateLabelCenters extends StepExecutor {
 		}
 	}
 	
-	private static final GeoJsonWriter GEO_WRITER;
-	
-	static {
-		GEO_WRITER = new GeoJsonWriter();
-		GEO_WRITER.setEncodeCRS(false);
-	}
-	
 	private Map<UUID, LngLat> calcInnerPoint(GeoData in) throws IOException {
 		try(var _=this.measureSubtime("calcInnerPoint")) {
 			var fc = in.toFeatureCollection();
@@ -201,13 +191,10 @@ public class GenerateLabelCenters extends StepExecutor {
 	        	.stream()
 	        	.map(f -> {
 	        		try {
-		        		var json = Jackson.JSON.writeValueAsString(f);
-		        		
-		        		var hull = ConcaveHullOfPolygons.concaveHullByLengthRatio(new GeoJsonReader().read(json), 0.15);
-		        		var geom = Jackson.JSON.readValue(GEO_WRITER.write(hull), Geometry.class);
+		        		var hull = ConcaveHullOfPolygons.concaveHullByLengthRatio(JtsBridge.toJts(f.getGeometry()), 0.15);
 		        		var res = new Feature();
 		        		res.setProperties(f.getProperties());
-		        		res.setGeometry(geom);
+		        		res.setGeometry(JtsBridge.fromJts(hull));
 		        		return res;
 	        		} catch(Exception e) {
 	        			log.warn("Can't generate concave hull for {}:{}", description.getId(), f, e.getMessage());
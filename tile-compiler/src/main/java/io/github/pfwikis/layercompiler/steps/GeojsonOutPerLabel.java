@@ -5,6 +5,7 @@ import java.nio.file.Files;
 
 import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
+import io.github.pfwikis.layercompiler.steps.model.StepCache;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
@@ -17,6 +18,7 @@ import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Getter @Setter
+@StepCache.Uncacheable
 @Time.Requirement(Time.Requirement.Value.REQUIRES_MERGED)
 public class GeojsonOutPerLabel extends StepExecutor {
 	
@@ -13,12 +13,29 @@ import io.github.pfwikis.model.FeatureCollection;
 import io.github.pfwikis.model.Geometry.MultiPolygon;
 import io.github.pfwikis.model.Geometry.Polygon;
 import io.github.pfwikis.model.LngLat;
+import io.github.pfwikis.run.QgisAlgorithm;
+import io.github.pfwikis.run.Runner;
 import io.github.pfwikis.run.Tools;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @Time.Requirement(Time.Requirement.Value.ANY)
 public class Highlights extends StepExecutor {
+	
+	private static final QgisAlgorithm BUFFER = QgisAlgorithm.of("native:buffer",
+        "--DISTANCE=expression:5*\"buffer\"",
+        "--SEGMENTS=5",
+        "--END_CAP_STYLE=0",
+        "--JOIN_STYLE=0",
+        "--MITER_LIMIT=2"
+    );
+	private static final QgisAlgorithm DEBUFFER = QgisAlgorithm.of("native:buffer",
+        "--DISTANCE=expression:-4*\"buffer\"",
+        "--SEGMENTS=5",
+        "--END_CAP_STYLE=0",
+        "--JOIN_STYLE=0",
+        "--MITER_LIMIT=2"
+    );
 
 	@Override
 	public Content process(Inputs in) throws Exception {
@@ -62,25 +79,24 @@ public class Highlights extends StepExecutor {
 					todo.size()
 			);
 			
-			var buffered = Tools.qgis(this, "native:buffer", GeoData.from(chunkCol),
-	            "--DISTANCE=expression:5*\"buffer\"",
-	            "--SEGMENTS=5",
-	            "--END_CAP_STYLE=0",
-	            "--JOIN_STYLE=0",
-	            "--MITER_LIMIT=2"
-	        );
-			
-			var withoutHoles = Tools.mapshaper(this, buffered,
-				"-drop", "holes"
-			);
-			
-			var debuffered = Tools.qgis(this, "native:buffer", withoutHoles,
-	            "--DISTANCE=expression:-4*\"buffer\"",
-	            "--SEGMENTS=5",
-	            "--END_CAP_STYLE=0",
-	            "--JOIN_STYLE=0",
-	            "--MITER_LIMIT=2"
-	        );
+			GeoData debuffered;
+			//only a worker keeps the whole chain in one process, otherwise mapshaper drops the holes
+			if(Runner.hasQgisWorkers()) {
+				debuffered = Tools.qgisChain(this, GeoData.from(chunkCol),
+					BUFFER,
+					QgisAlgorithm.of("native:deleteholes",
+						"--MIN_AREA=0"
+					),
+					DEBUFFER
+				);
+			}
+			else {
+				var buffered = Tools.qgisChain(this, GeoData.from(chunkCol), BUFFER);
+				var withoutHoles = Tools.mapshaper(this, buffered,
+					"-drop", "holes"
+				);
+				debuffered = Tools.qgisChain(this, withoutHoles, DEBUFFER);
+			}
 			
 			var simple = Tools.mapshaper(this, debuffered,
 				"-each", "this.properties.buffer=undefined",
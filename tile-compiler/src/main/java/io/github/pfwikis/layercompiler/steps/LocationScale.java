@@ -16,6 +16,7 @@ import com.google.common.collect.Sets;
 
 import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
+import io.github.pfwikis.layercompiler.steps.model.StepCache;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
@@ -25,6 +26,7 @@ import io.github.pfwikis.util.Jackson;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
+@StepCache.Uncacheable
 @Time.Requirement(Time.Requirement.Value.ANY)
 public class LocationScale extends StepExecutor {
 
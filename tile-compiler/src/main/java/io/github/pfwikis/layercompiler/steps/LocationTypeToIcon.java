@@ -2,12 +2,16 @@ package io.github.pfwikis.layercompiler.steps;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Comparator;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset.Entry;
+import com.google.common.hash.Hasher;
 
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
@@ -21,11 +25,21 @@ import lombok.extern.slf4j.Slf4j;
 public class LocationTypeToIcon extends StepExecutor {
 
     @Override
-    public Content process(Inputs in) throws IOException {
-    	var icons = Arrays.stream(new File("sprites").list())
+    public void fingerprintExternalInputs(Hasher hasher) {
+    	//only which icons exist matters, not what they look like
+    	icons().forEach(i->hasher.putString(i, StandardCharsets.UTF_8).putByte((byte)0));
+    }
+    
+    private SortedSet<String> icons() {
+    	return Arrays.stream(new File("sprites").list())
     		.filter(n->n.startsWith("location-") && n.endsWith(".svg"))
     		.map(n->n.substring(9, n.length()-4))
-    		.collect(Collectors.toSet());
+    		.collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Override
+    public Content process(Inputs in) throws IOException {
+    	var icons = icons();
     	
     	var counts = HashMultiset.<String>create();
     	var fc = in.getInput().toFeatureCollection();
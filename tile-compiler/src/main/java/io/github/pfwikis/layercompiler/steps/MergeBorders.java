@@ -10,9 +10,9 @@ import io.github.pfwikis.layercompiler.steps.model.content.Content;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import io.github.pfwikis.model.Feature;
 import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.model.FixedPoint;
 import io.github.pfwikis.model.Geometry.ILineString;
 import io.github.pfwikis.model.Geometry.LineString;
-import io.github.pfwikis.model.LngLat;
 import io.github.pfwikis.run.Tools;
 import io.github.pfwikis.util.TimeMap;
 import io.github.pfwikis.util.TimeSet;
@@ -42,10 +42,10 @@ public class MergeBorders extends StepExecutor {
     			if(f.getGeometry() instanceof ILineString mline) {
     				for(var line:mline.toLines()) {
 	    				for(int i=0;i<line.size()-1;i++) {
-	    					var a=line.get(i).roundTo(7);
-	    					var b=line.get(i+1).roundTo(7);
-	    					if(a.lng()<b.lng() || (a.lng()==b.lng()&&a.lat()<b.lat())) {
-	    						var c = a;
+	    					long a=FixedPoint.pack(line.get(i));
+	    					long b=FixedPoint.pack(line.get(i+1));
+	    					if(a<b) {
+	    						long c = a;
 	    						a=b;
 	    						b=c;
 	    					}
@@ -70,7 +70,7 @@ public class MergeBorders extends StepExecutor {
     			var type = entry.getValue();
 	    		var f = new Feature();
 	    		fc.getFeatures().add(f);
-	    		f.setGeometry(LineString.from(List.of(seg.a, seg.b)));
+	    		f.setGeometry(LineString.from(List.of(FixedPoint.unpack(seg.a), FixedPoint.unpack(seg.b))));
 	    		f.getProperties().setBorderType(type);
 	    		f.getProperties().setTime(entry.getKey());
     		}
@@ -82,7 +82,7 @@ public class MergeBorders extends StepExecutor {
     		for(var time:segEntry.getValue().asRanges()) {
 	    		var f = new Feature();
 	    		fc.getFeatures().add(f);
-	    		f.setGeometry(LineString.from(List.of(seg.a, seg.b)));
+	    		f.setGeometry(LineString.from(List.of(FixedPoint.unpack(seg.a), FixedPoint.unpack(seg.b))));
 	    		f.getProperties().setBorderType(1);
 	    		f.getProperties().setMaxzoom(5);
 	    		f.getProperties().setTime(time);
@@ -101,6 +101,7 @@ public class MergeBorders extends StepExecutor {
     	//merge min and max zoom
     	//probably an int type is fine
     }
-	private record Segment(LngLat a, LngLat b) {}
+	/** ends on the {@link FixedPoint} grid, ordered so that both directions are the same segment */
+	private record Segment(long a, long b) {}
 
 }
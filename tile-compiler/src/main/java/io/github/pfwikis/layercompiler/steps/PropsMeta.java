@@ -18,10 +18,11 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
+import io.github.pfwikis.layercompiler.steps.model.StepCache;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
-import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import io.github.pfwikis.model.Properties;
 import io.github.pfwikis.util.Jackson;
 import lombok.Data;
@@ -31,6 +32,7 @@ import tools.jackson.databind.JsonNode;
 import tools.jackson.databind.node.ValueNode;
 
 @Slf4j
+@StepCache.Uncacheable
 @Time.Requirement(Time.Requirement.Value.REQUIRES_MERGED)
 public class PropsMeta extends StepExecutor {
 
@@ -43,7 +45,7 @@ public class PropsMeta extends StepExecutor {
     	var layers = new TreeMap<String, LayerMeta>();
     	in.getInputs().entrySet()
     		.stream()
-			.map(e->Pair.of(e.getKey(), collectLayerInfo(e.getKey(), e.getValue().toFeatureCollection())))
+			.map(e->Pair.of(e.getKey(), collectLayerInfo(e.getKey(), e.getValue())))
 			.sorted(Comparator.comparing(Pair::getKey))
 			.forEach(e->layers.put(e.getKey(), e.getValue()));
     	
@@ -69,9 +71,9 @@ public class PropsMeta extends StepExecutor {
     	return Content.empty();
     }
     
-    private LayerMeta collectLayerInfo(String id, FeatureCollection fc) {
+    private LayerMeta collectLayerInfo(String id, GeoData data) {
     	var props = new HashMap<String, PropMeta>();
-    	fc.getFeatures().forEach(f-> {
+    	data.forEachFeature(f-> {
     		var json = Jackson.JSON.valueToTree(f.getProperties()).asObject();
     		for(var prop:json.properties()) {
     			props.computeIfAbsent(prop.getKey(), PropMeta::new).integrate(prop.getValue());
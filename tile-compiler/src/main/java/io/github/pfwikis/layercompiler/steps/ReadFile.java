@@ -5,6 +5,8 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Objects;
 
+import com.google.common.hash.Hasher;
+
 import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
@@ -12,8 +14,10 @@ import io.github.pfwikis.layercompiler.steps.model.Time;
 import io.github.pfwikis.layercompiler.steps.model.content.Content;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import io.github.pfwikis.run.Tools;
+import io.github.pfwikis.util.FileHashes;
 import io.github.pfwikis.util.time.TimeRange;
 import lombok.Getter;
+import lombok.SneakyThrows;
 
 @Time.Requirement(Time.Requirement.Value.ANY)
 public class ReadFile extends StepExecutor {
@@ -33,6 +37,22 @@ public class ReadFile extends StepExecutor {
 	}
 
 
+	@Override
+	@SneakyThrows
+	public void fingerprintExternalInputs(Hasher hasher) {
+		hasher.putBytes(FileHashes.sha256(sourcePath()).asBytes());
+	}
+
+	private Path sourcePath() {
+		if(file != null)
+			return Path.of("../sources").resolve(file.toPath()).normalize();
+		return Ctx.INSTANCE.getOptions().getMappingDataFile().toPath();
+	}
+
+	private GeoData source() {
+		return GeoData.from(sourcePath());
+	}
+
 	@Override
     public Content process(Inputs in) throws IOException {
 		GeoData res;
@@ -43,15 +63,16 @@ public class ReadFile extends StepExecutor {
 		else {
 			res = Tools.mapshaper(
 				this,
-				GeoData.from(Ctx.INSTANCE.getOptions().getMappingDataFile()),
+				source(),
 				"layers="+layer,
 				"-filter-fields", "fid", "invert"
 			);
         }
 		
-		boolean hasTime = res.toFeatureCollection().getFeatures()
-			.stream()
-			.anyMatch(f->f.getProperties().getTime() != null && !f.getProperties().getTime().equals(TimeRange.always()));
+		boolean hasTime;
+		try(var features = res.streamFeatures()) {
+			hasTime = features.anyMatch(f->f.getProperties().getTime() != null && !f.getProperties().getTime().equals(TimeRange.always()));
+		}
 		
 		return hasTime?Content.merged(res):Content.timeless(res);
     }
@@ -0,0 +1,11 @@
+package io.github.pfwikis.layercompiler.steps.model;
+
+/**
+ * A sliced step that is a single mapshaper call on its "in" input and handles every layer
+ * on its own. With -batchSlices all time slices of such a step are processed by one
+ * mapshaper call, each slice as a separate layer.
+ */
+public interface MapshaperBatchable {
+
+	Object[] mapshaperCommands();
+}
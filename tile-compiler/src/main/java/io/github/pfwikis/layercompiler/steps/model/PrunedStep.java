@@ -0,0 +1,25 @@
+package io.github.pfwikis.layercompiler.steps.model;
+
+import io.github.pfwikis.layercompiler.description.Ctx;
+import io.github.pfwikis.layercompiler.steps.model.content.Content;
+
+/**
+ * Stand-in for a step that is not part of a partial build. It provides the most
+ * recent cached result of the original step and fails if there is none.
+ */
+@StepCache.Uncacheable
+@Time.Requirement(Time.Requirement.Value.ANY)
+public class PrunedStep extends StepExecutor {
+
+	@Override
+	protected Content process(Inputs in) {
+		var cache = Ctx.INSTANCE.getStepCache();
+		if(cache == null)
+			throw new IllegalStateException("Pruned step "+description.getId()+" needs a -cacheDirectory");
+		var cached = cache.loadLatest(description.getId())
+			.orElseThrow(()->new IllegalStateException("No cached result for pruned step "+description.getId()
+				+", build it once without -only"));
+		setCached(true);
+		return cached;
+	}
+}
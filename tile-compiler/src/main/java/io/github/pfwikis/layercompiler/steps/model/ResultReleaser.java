@@ -0,0 +1,56 @@
+package io.github.pfwikis.layercompiler.steps.model;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.github.pfwikis.layercompiler.steps.model.content.Content;
+import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Counts the steps that still need the result of a step and releases the result
+ * once the last of them finished. Data shared with results that are still needed
+ * (e.g. passed through by a step) is kept.
+ */
+@Slf4j
+public class ResultReleaser {
+
+	private final Map<String, Integer> remainingConsumers;
+	private final Map<String, Content> live = new HashMap<>();
+
+	public ResultReleaser(Map<String, Integer> consumers) {
+		this.remainingConsumers = new HashMap<>(consumers);
+	}
+
+	public synchronized int consumers(String id) {
+		return remainingConsumers.getOrDefault(id, 0);
+	}
+
+	public synchronized void completed(String id, Content result, Map<String, Content> inputs) {
+		if(remainingConsumers.getOrDefault(id, 0) > 0)
+			live.put(id, result);
+
+		for(var input:inputs.entrySet()) {
+			int remaining = remainingConsumers.merge(input.getKey(), -1, Integer::sum);
+			if(remaining == 0) {
+				var released = live.remove(input.getKey());
+				if(released == null)
+					released = input.getValue();
+				release(input.getKey(), released);
+			}
+		}
+	}
+
+	private void release(String id, Content content) {
+		Set<GeoData> stillNeeded = Collections.newSetFromMap(new IdentityHashMap<>());
+		live.values().forEach(c->c.streamData().forEach(stillNeeded::add));
+
+		content.streamData()
+			.filter(d->!stillNeeded.contains(d))
+			.forEach(GeoData::release);
+		log.debug("Released result of {}", id);
+	}
+}
@@ -0,0 +1,188 @@
+package io.github.pfwikis.layercompiler.steps.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.tuple.Pair;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+import io.github.pfwikis.layercompiler.description.Ctx;
+import io.github.pfwikis.layercompiler.steps.model.Time.ContentState;
+import io.github.pfwikis.layercompiler.steps.model.content.Content;
+import io.github.pfwikis.layercompiler.steps.model.content.TimeSlicedContent.TimeSlice;
+import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
+import io.github.pfwikis.util.Jackson;
+import io.github.pfwikis.util.time.TimeRange;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persistent, content addressed cache of step results. A result is identified by
+ * the step type, its configuration, the relevant cli options and the hashes of all
+ * its inputs.
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+public class StepCache {
+
+	/*increase this whenever the stored format or the semantics of steps change*/
+	private static final int VERSION = 1;
+	private static final String META_FILE = "content.json";
+	private static final String LATEST_DIR = "latest";
+
+	private final File directory;
+
+	/**
+	 * Marks steps whose results must never be cached, because they have side effects
+	 * outside of their returned content.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	public @interface Uncacheable {}
+
+	public static boolean isCacheable(StepExecutor step) {
+		return !step.getClass().isAnnotationPresent(Uncacheable.class);
+	}
+
+	public String fingerprint(StepExecutor step, List<Pair<String, Content>> inputs) {
+		var hasher = Hashing.sha256().newHasher();
+		var options = Ctx.INSTANCE.getOptions();
+		hasher
+			.putInt(VERSION)
+			.putString(step.getClass().getName(), StandardCharsets.UTF_8)
+			.putString(step.getDescription().getConfig().toString(), StandardCharsets.UTF_8)
+			.putInt(options.getMaxZoom())
+			.putBoolean(options.isProdDetail());
+		step.fingerprintExternalInputs(hasher);
+		for(var in:inputs) {
+			hasher.putString(in.getKey(), StandardCharsets.UTF_8);
+			putContent(hasher, in.getValue());
+		}
+		return hasher.hash().toString();
+	}
+
+	private void putContent(Hasher hasher, Content content) {
+		hasher.putString(content.getTimeState().name(), StandardCharsets.UTF_8);
+		switch(content.getTimeState()) {
+			case MERGED, TIMELESS -> hasher.putBytes(content.asMergedOrTimeless().getData().hash().asBytes());
+			case SLICED -> {
+				for(var slice:content.asSliced().getSlices()) {
+					putTime(hasher, slice.getTime());
+					hasher.putBytes(slice.getData().hash().asBytes());
+				}
+			}
+		}
+	}
+
+	private void putTime(Hasher hasher, TimeRange time) {
+		hasher
+			.putInt(time.hasLowerBound()?time.getTimeStart():Integer.MIN_VALUE)
+			.putInt(time.hasUpperBound()?time.getTimeEnd():Integer.MAX_VALUE);
+	}
+
+	private File entryDirectory(String fingerprint) {
+		return new File(new File(directory, fingerprint.substring(0, 2)), fingerprint);
+	}
+
+	public Optional<Content> load(String fingerprint) {
+		var dir = entryDirectory(fingerprint);
+		var meta = new File(dir, META_FILE);
+		if(!meta.isFile())
+			return Optional.empty();
+		try {
+			var cached = Jackson.JSON.readValue(meta, CachedContent.class);
+			var slices = new ArrayList<TimeSlice>(cached.slices().size());
+			for(var s:cached.slices()) {
+				var data = s.file()==null?GeoData.empty():GeoData.from(new File(dir, s.file()));
+				slices.add(new TimeSlice(new TimeRange(s.timeStart(), s.timeEnd()), data));
+			}
+			return Optional.of(switch(cached.state()) {
+				case TIMELESS -> Content.timeless(slices.getFirst().getData());
+				case MERGED -> Content.merged(slices.getFirst().getData());
+				case SLICED -> Content.sliced(slices);
+			});
+		} catch(Exception e) {
+			log.warn("Ignoring broken cache entry {}", dir, e);
+			return Optional.empty();
+		}
+	}
+
+	public void store(String fingerprint, Content content) {
+		var dir = entryDirectory(fingerprint);
+		if(dir.isDirectory())
+			return;
+
+		File tmp = null;
+		try {
+			dir.getParentFile().mkdirs();
+			tmp = Files.createTempDirectory(dir.getParentFile().toPath(), fingerprint).toFile();
+
+			var slices = new ArrayList<CachedSlice>();
+			List<TimeSlice> toStore = content.getTimeState()==ContentState.SLICED
+				?content.asSliced().getSlices()
+				:List.of(new TimeSlice(TimeRange.always(), content.asMergedOrTimeless().getData()));
+			for(var slice:toStore) {
+				String file = null;
+				if(!slice.getData().isEmpty()) {
+					file = slices.size()+".geojson";
+					slice.getData().writeTo(new File(tmp, file).toPath());
+				}
+				slices.add(new CachedSlice(slice.getTime().getTimeStart(), slice.getTime().getTimeEnd(), file));
+			}
+			Jackson.JSON.writeValue(new File(tmp, META_FILE), new CachedContent(content.getTimeState(), slices));
+
+			Files.move(tmp.toPath(), dir.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch(FileAlreadyExistsException e) {
+			//someone else stored the same result concurrently
+		} catch(IOException e) {
+			log.warn("Could not store cache entry {}", dir, e);
+		} finally {
+			if(tmp != null)
+				FileUtils.deleteQuietly(tmp);
+		}
+	}
+
+	/**
+	 * Remembers the given fingerprint as the most recent result of the step with the given id.
+	 * This allows partial builds to reuse results of steps that are not executed.
+	 */
+	public void rememberLatest(String stepId, String fingerprint) {
+		try {
+			var file = new File(new File(directory, LATEST_DIR), stepId);
+			FileUtils.writeStringToFile(file, fingerprint, StandardCharsets.UTF_8);
+		} catch(IOException e) {
+			log.warn("Could not remember latest result of {}", stepId, e);
+		}
+	}
+
+	public Optional<Content> loadLatest(String stepId) {
+		var file = new File(new File(directory, LATEST_DIR), stepId);
+		if(!file.isFile())
+			return Optional.empty();
+		try {
+			return load(FileUtils.readFileToString(file, StandardCharsets.UTF_8).strip());
+		} catch(IOException e) {
+			log.warn("Could not read latest result of {}", stepId, e);
+			return Optional.empty();
+		}
+	}
+
+	private static record CachedContent(ContentState state, List<CachedSlice> slices) {}
+	private static record CachedSlice(Integer timeStart, Integer timeEnd, String file) {}
+}
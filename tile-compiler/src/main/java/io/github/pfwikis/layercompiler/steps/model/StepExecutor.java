@@ -5,18 +5,25 @@ import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.SequencedMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Executors;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 
 import org.apache.commons.lang3.tuple.Pair;
 
 import com.github.dexecutor.core.task.Task;
 import com.google.common.base.Stopwatch;
+import com.google.common.hash.Hasher;
 
+import io.github.pfwikis.layercompiler.description.Ctx;
 import io.github.pfwikis.layercompiler.description.StepDescription;
 import io.github.pfwikis.layercompiler.steps.model.Time.ContentState;
 import io.github.pfwikis.layercompiler.steps.model.Time.DataState;
@@ -25,8 +32,11 @@ import io.github.pfwikis.layercompiler.steps.model.content.TimeSlicedContent;
 import io.github.pfwikis.layercompiler.steps.model.content.TimeSlicedContent.TimeSlice;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.run.Runner;
+import io.github.pfwikis.run.Tools;
 import io.github.pfwikis.util.TimeMap;
 import io.github.pfwikis.util.TimeSet;
+import io.github.pfwikis.util.Trace;
 import io.github.pfwikis.util.time.TimeRange;
 import lombok.Getter;
 import lombok.Setter;
@@ -39,6 +49,11 @@ public abstract class StepExecutor extends Task<String, Content> {
     protected StepDescription description;
     private SequencedMap<String, String> inputMapping = new LinkedHashMap<>();
     private Map<String, Duration> subTimings = new HashMap<>();
+    /*true if the result was not computed in this run*/
+    private boolean cached = false;
+    private ResultReleaser releaser;
+    /*data this step passed to or got from tools*/
+    private Set<GeoData> touchedData = ConcurrentHashMap.newKeySet();
 
 
     protected abstract Content process(Inputs in) throws Exception;
@@ -51,49 +66,121 @@ public abstract class StepExecutor extends Task<String, Content> {
     		Thread.currentThread().setName(group+"."+step);
     }
 
+    /*results needed by this many steps are likely to stay in memory for a long time*/
+    private static final int COMPRESS_MIN_CONSUMERS = 3;
+
     @Override
     public Content execute() {
     	var oldName = Thread.currentThread().getName();
         try {
         	setThreadName(description.getGroup(), description.getStep(), null);
         	
-        	//we need to differentiate between different cases based on our requirement
-        	Content results = switch(description.getTimeRequirement()) {
-        		case ANY,REQUIRES_MERGED -> executeWithMergedContents();
-        		case REQUIRES_SLICED -> executeWithSlicedInputs();
-        	};
-        	
+        	Content results;
+        	try(var _=Trace.span("step", description.getId())) {
+        		results = loadOrProcess();
+        	}
+        	if(releaser != null) {
+        		if(Ctx.INSTANCE.getOptions().isCompressResults()
+        				&& releaser.consumers(description.getId()) >= COMPRESS_MIN_CONSUMERS) {
+        			results = results.mapData(GeoData::compressed);
+        		}
+        		releaseIntermediates(results);
+        		var inputs = new LinkedHashMap<String, Content>();
+        		for(var id:inputMapping.values()) {
+        			inputs.put(id, getResult(id).getResult());
+        		}
+        		releaser.completed(description.getId(), results, inputs);
+        	}
         	return results;
         } catch (Throwable t) {
         	log.error("Failed execution", t);
+        	if(Ctx.INSTANCE.getOptions().isFailFast())
+        		Runner.cancelAll();
             throw new RuntimeException("Failed execution with: "+t.getMessage(), t);
         } finally {
         	Thread.currentThread().setName(oldName);
         }
     }
 
+    /**
+     * Remembers data used by this step so that it can be released once the step is done.
+     */
+    public void touch(GeoData data) {
+    	touchedData.add(data);
+    }
+
+    private void releaseIntermediates(Content results) {
+    	Set<GeoData> keep = Collections.newSetFromMap(new IdentityHashMap<>());
+    	results.streamData().forEach(keep::add);
+    	getAllInputs(UnaryOperator.identity()).forEach(in->in.getValue().streamData().forEach(keep::add));
+    	touchedData.stream()
+    		.filter(d->!keep.contains(d))
+    		.forEach(GeoData::release);
+    	touchedData.clear();
+    }
+
+    private Content loadOrProcess() throws Exception {
+    	var cache = Ctx.INSTANCE.getStepCache();
+    	String fingerprint = null;
+    	if(cache != null && StepCache.isCacheable(this)) {
+    		fingerprint = cache.fingerprint(this, getAllInputs(UnaryOperator.identity()));
+    		var cached = cache.load(fingerprint);
+    		if(cached.isPresent()) {
+    			log.info("Reusing cached result {}", fingerprint);
+    			cache.rememberLatest(description.getId(), fingerprint);
+    			this.cached = true;
+    			return cached.get();
+    		}
+    	}
+    	
+    	//we need to differentiate between different cases based on our requirement
+    	Content results = switch(description.getTimeRequirement()) {
+    		case ANY,REQUIRES_MERGED -> executeWithMergedContents();
+    		case REQUIRES_SLICED -> executeWithSlicedInputs();
+    	};
+    	
+    	if(fingerprint != null) {
+    		cache.store(fingerprint, results);
+    		cache.rememberLatest(description.getId(), fingerprint);
+    	}
+    	return results;
+    }
+
     private Content executeWithSlicedInputs() throws Exception {
-		var variants = createSlicedVariants();
+		var variants = deduplicate(createSlicedVariants());
 		
 		//shortcut in case there is only one
-		if(variants.size()==1) {
+		if(variants.size()==1 && variants.getFirst().times().size()==1) {
 			var variant = variants.getFirst();
-			var res = limitContentToTime(process(variant), variant.getTime()).asTimelessIfPossible();
+			var res = limitContentToTime(process(variant.inputs()), variant.times().getFirst()).asTimelessIfPossible();
 			return res;
 		}
 		
+		if(this instanceof MapshaperBatchable batchable
+				&& Ctx.INSTANCE.getOptions().isBatchSlices()
+				&& variants.stream().allMatch(v->v.inputs().getInputs().keySet().equals(Set.of("in")))) {
+			return executeBatched(batchable, variants);
+		}
+		
 		try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			var completion = new ExecutorCompletionService<Content>(executor);
 			var futures = variants
 				.stream()
-				.map(v-> executor.submit(() -> {
-					StepExecutor.setThreadName(description.getGroup(), description.getStep(), v.getTime().toString());
-					return limitContentToTime(process(v),v.getTime());
+				.map(v-> completion.submit(() -> {
+					StepExecutor.setThreadName(description.getGroup(), description.getStep(), v.inputs().getTime().toString());
+					try(var _=Trace.span("slice", description.getId(), Map.of("time", v.times().toString()))) {
+						return process(v.inputs());
+					}
 				}))
 				.toList();
 			var results = new ArrayList<TimeSlice>(futures.size());
 		    try {
-		        for (var f : futures) {
-		            results.addAll(f.get().getSlices());
+		    	//wait in order of completion so that the first failure cancels the other slices
+		    	for (int i=0;i<futures.size();i++) {
+		    		completion.take().get();
+		    	}
+		    	for (int i=0;i<futures.size();i++) {
+		            results.addAll(variants.get(i).slices(futures.get(i).resultNow()));
 		        }
 		        return Content.sliced(results);
 		    } catch (Exception e) {
@@ -103,7 +190,67 @@ public abstract class StepExecutor extends Task<String, Content> {
 		}
 	}
     
-    private TimeSlicedContent limitContentToTime(Content content, TimeRange range) {
+    private Content executeBatched(MapshaperBatchable batchable, List<Variant> variants) throws Exception {
+    	var outputs = Tools.mapshaperBatch(this, variants.stream().map(v->v.inputs().getInput()).toList(), batchable.mapshaperCommands());
+    	var results = new ArrayList<TimeSlice>(variants.size());
+    	for(int i=0;i<variants.size();i++) {
+    		results.addAll(variants.get(i).slices(Content.timeless(outputs.get(i))));
+    	}
+    	return Content.sliced(results);
+    }
+    
+    /**
+     * Inputs that are processed once and whose result is used for all of the given times.
+     */
+    private record Variant(Inputs inputs, List<TimeRange> times) {
+    	private List<TimeSlice> slices(Content result) {
+    		var res = new ArrayList<TimeSlice>();
+    		for(var time:times) {
+    			res.addAll(limitContentToTime(result, time).getSlices());
+    		}
+    		return res;
+    	}
+    }
+    
+    /**
+     * Adjacent slices often have identical inputs. Those are only processed once and the
+     * result is reused for all of their (coalesced) times. Inputs are compared by their
+     * {@link GeoData#sliceKey()}.
+     */
+    private List<Variant> deduplicate(List<Inputs> variants) {
+    	if(variants.size() == 1 || getClass().isAnnotationPresent(Time.UsesSliceTime.class))
+    		return variants.stream().map(v->new Variant(v, List.of(v.getTime()))).toList();
+    	
+    	var unique = new LinkedHashMap<List<Pair<String, Object>>, Inputs>();
+    	var times = new HashMap<List<Pair<String, Object>>, TimeSet>();
+    	for(var v:variants) {
+    		var key = v.getInputs().entrySet().stream()
+    			.map(e->Pair.of(e.getKey(), e.getValue().sliceKey()))
+    			.toList();
+    		unique.putIfAbsent(key, v);
+    		times.computeIfAbsent(key, _->TimeSet.create()).add(v.getTime());
+    	}
+    	if(unique.size() < variants.size())
+    		log.info("Processing {} unique of {} time slices", unique.size(), variants.size());
+    	return unique.entrySet().stream()
+    		.map(e->new Variant(
+    			coveringAll(e.getValue(), times.get(e.getKey())),
+    			times.get(e.getKey()).asRangeList()
+    		))
+    		.toList();
+    }
+    
+    /*the features of a result reused for several slices have to exist during all of them*/
+    private static Inputs coveringAll(Inputs inputs, TimeSet times) {
+    	var span = times.span();
+    	if(span.equals(inputs.getTime()))
+    		return inputs;
+    	var res = Inputs.from(inputs.getTimeState(), span);
+    	inputs.getInputs().forEach((k, v)->res.getInputs().put(k, v.withSliceTime(span)));
+    	return res;
+    }
+    
+    private static TimeSlicedContent limitContentToTime(Content content, TimeRange range) {
     	if(range.equals(TimeRange.always())) {
     		return content.asSliced();
     	}
@@ -180,9 +327,10 @@ public abstract class StepExecutor extends Task<String, Content> {
 		return res;
 	}
 	
-	public record Timing(String key, Stopwatch watch, StepExecutor step) implements Closeable {
+	public record Timing(String key, Stopwatch watch, StepExecutor step, Trace.Span span) implements Closeable {
 		@Override
 		public void close() {
+			span.close();
 			var time = watch.stop().elapsed();
 			synchronized(step.subTimings) {
 				step.subTimings.merge(key, time, Duration::plus);
@@ -190,9 +338,15 @@ public abstract class StepExecutor extends Task<String, Content> {
 		}
     }
     public Timing measureSubtime(String key) {
-    	return new Timing(key, Stopwatch.createStarted(), this);
+    	return new Timing(key, Stopwatch.createStarted(), this, Trace.span("subtime", key, Map.of("step", description.getId())));
     }
 
 
 	public List<StepExecutor> createAutoSteps() {return Collections.emptyList();}
+	
+	/**
+	 * Steps that read data not passed in as an input (e.g. files) have to add it to
+	 * the fingerprint used for caching their results.
+	 */
+	public void fingerprintExternalInputs(Hasher hasher) {}
 }
@@ -19,6 +19,14 @@ public class Time {
 		}
 	}
 	
+	/**
+	 * Marks sliced steps whose result depends on the time of the slice and not only on
+	 * the data. Their slices are never deduplicated.
+	 */
+	@Retention(RetentionPolicy.RUNTIME)
+	@Target(ElementType.TYPE)
+	public @interface UsesSliceTime {}
+	
 	public static enum DataState {
 		MERGED {
 			@Override
@@ -1,6 +1,8 @@
 package io.github.pfwikis.layercompiler.steps.model.content;
 
 import java.util.List;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import io.github.pfwikis.layercompiler.steps.model.Inputs;
 import io.github.pfwikis.layercompiler.steps.model.Time;
@@ -17,6 +19,16 @@ public interface Content {
 	
 	public TimeSlicedContent asSliced();
 	
+	/**
+	 * All data held by this content, including already computed other representations.
+	 */
+	public Stream<GeoData> streamData();
+	
+	/**
+	 * The same content with all of its data replaced by the given function.
+	 */
+	public Content mapData(UnaryOperator<GeoData> mapper);
+	
 	/* ------------------- creator methods ----------------------------*/
 	public static Content derivedFrom(Inputs in, GeoData data) {
 		return switch(in.getTimeState()) {
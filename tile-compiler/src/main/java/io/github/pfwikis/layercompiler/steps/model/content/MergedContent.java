@@ -1,26 +1,23 @@
 package io.github.pfwikis.layercompiler.steps.model.content;
 
-import java.util.Optional;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import io.github.pfwikis.layercompiler.steps.model.Time.ContentState;
 import io.github.pfwikis.layercompiler.steps.model.content.TimeSlicedContent.TimeSlice;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import io.github.pfwikis.layercompiler.steps.time.TimeSlicer;
-import io.github.pfwikis.model.Feature;
-import io.github.pfwikis.model.FeatureCollection;
-import io.github.pfwikis.util.time.TimeRange;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import lombok.experimental.Accessors;
 
 @Getter
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class MergedContent implements MergedOrTimelessContent {
 
 	private final GeoData data;
-	@Getter(lazy = true) @Accessors(fluent = true)
-	private final TimeSlicedContent asSliced = slice();
+	@Getter(AccessLevel.NONE)
+	private volatile TimeSlicedContent sliced;
 	
 	@Override
 	public ContentState getTimeState() {
@@ -32,35 +29,40 @@ public class MergedContent implements MergedOrTimelessContent {
 		return this;
 	}
 	
+	@Override
+	public TimeSlicedContent asSliced() {
+		if(sliced == null) {
+			synchronized(this) {
+				if(sliced == null)
+					sliced = slice();
+			}
+		}
+		return sliced;
+	}
+
+	@Override
+	public Stream<GeoData> streamData() {
+		var derived = sliced;
+		if(derived == null)
+			return Stream.of(data);
+		return Stream.concat(Stream.of(data), derived.streamData());
+	}
+	
+	@Override
+	public MergedContent mapData(UnaryOperator<GeoData> mapper) {
+		return new MergedContent(mapper.apply(data));
+	}
+	
 	public TimeSlicedContent slice() {
+		//parsed once and shared by all slices, the slices only copy what they are asked for
 		var fc = data.toFeatureCollection();
 		var barriers = TimeSlicer.extractBarriers(fc);
 		
 		return new TimeSlicedContent(
 			TimeSlicer.barriersToSlices(barriers)
 				.stream()
-				.map(time -> {
-					var rfc = new FeatureCollection();
-					
-					for(var f:fc.getFeatures()) {
-						if(shouldContain(time, f)) {
-							Feature c = f.copy();
-							c.getProperties().setTime(time.intersection(
-								Optional.ofNullable(c.getProperties().getTime())
-									.orElse(TimeRange.always())
-							));
-							rfc.getFeatures().add(c);
-						}
-					}
-					return new TimeSlice(time, GeoData.from(rfc));
-				})
+				.map(time -> new TimeSlice(time, GeoData.timeView(fc, time)))
 				.toList()
 		);
 	}
-	
-	private boolean shouldContain(TimeRange time, Feature f) {
-		TimeRange fRange = f.getProperties().getTime();
-		return time.intersects(fRange);
-	}
-
 }
@@ -4,6 +4,8 @@ import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 import io.github.pfwikis.layercompiler.steps.model.Time.ContentState;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
@@ -16,15 +18,14 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.ToString;
-import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 
 @Getter @Slf4j
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class TimeSlicedContent implements Content {
 	private final List<TimeSlice> slices;
-	@Getter(lazy = true) @Accessors(fluent = true)
-	private final MergedContent asMergedOrTimeless = merge();
+	@Getter(AccessLevel.NONE)
+	private volatile MergedContent merged;
 	
 	@Getter
 	@ToString(of = "time")
@@ -43,6 +44,36 @@ public class TimeSlicedContent implements Content {
 	public TimeSlicedContent asSliced() {
 		return this;
 	}
+	
+	@Override
+	public MergedContent asMergedOrTimeless() {
+		if(merged == null) {
+			synchronized(this) {
+				if(merged == null)
+					merged = merge();
+			}
+		}
+		return merged;
+	}
+
+	@Override
+	public Stream<GeoData> streamData() {
+		var sliceData = slices.stream().map(TimeSlice::getData);
+		var derived = merged;
+		if(derived == null)
+			return sliceData;
+		return Stream.concat(sliceData, Stream.of(derived.getData()));
+	}
+
+	@Override
+	public TimeSlicedContent mapData(UnaryOperator<GeoData> mapper) {
+		//slices can share their data, which should stay that way
+		var mapped = new IdentityHashMap<GeoData, GeoData>();
+		return new TimeSlicedContent(slices
+			.stream()
+			.map(s->new TimeSlice(s.getTime(), mapped.computeIfAbsent(s.getData(), mapper)))
+			.toList());
+	}
 
 	private MergedContent merge() {
 		Map<Feature, TimeSet> geometry = new HashMap<>();
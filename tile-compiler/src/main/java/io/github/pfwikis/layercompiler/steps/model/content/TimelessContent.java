@@ -1,5 +1,8 @@
 package io.github.pfwikis.layercompiler.steps.model.content;
 
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
 import io.github.pfwikis.layercompiler.steps.model.Time.ContentState;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import lombok.AccessLevel;
@@ -26,4 +29,14 @@ public class TimelessContent implements MergedOrTimelessContent {
 	public TimeSlicedContent asSliced() {
 		return Content.slicedFromSingleAlwaysSlice(data);
 	}
+
+	@Override
+	public Stream<GeoData> streamData() {
+		return Stream.of(data);
+	}
+
+	@Override
+	public TimelessContent mapData(UnaryOperator<GeoData> mapper) {
+		return new TimelessContent(mapper.apply(data));
+	}
 }
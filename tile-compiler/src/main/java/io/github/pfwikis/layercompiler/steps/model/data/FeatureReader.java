@@ -0,0 +1,65 @@
+package io.github.pfwikis.layercompiler.steps.model.data;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import io.github.pfwikis.model.Feature;
+import io.github.pfwikis.util.Jackson;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+
+/**
+ * Reads the features of a GeoJSON FeatureCollection one at a time, so that only the
+ * current feature has to be held in memory.
+ */
+class FeatureReader implements Iterator<Feature>, Closeable {
+
+	private final JsonParser parser;
+	private JsonToken current;
+
+	private FeatureReader(JsonParser parser) {
+		this.parser = parser;
+		if(parser.nextToken() != JsonToken.START_OBJECT)
+			throw new IllegalStateException("Expected a FeatureCollection");
+		while(parser.nextToken() == JsonToken.PROPERTY_NAME) {
+			var name = parser.currentName();
+			if(parser.nextToken() == JsonToken.START_ARRAY && "features".equals(name)) {
+				current = parser.nextToken();
+				return;
+			}
+			parser.skipChildren();
+		}
+		current = JsonToken.END_ARRAY;
+	}
+
+	static Stream<Feature> stream(JsonParser parser) {
+		var reader = new FeatureReader(parser);
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(reader, Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.onClose(reader::close);
+	}
+
+	@Override
+	public boolean hasNext() {
+		return current == JsonToken.START_OBJECT;
+	}
+
+	@Override
+	public Feature next() {
+		if(!hasNext())
+			throw new NoSuchElementException();
+		var f = Jackson.JSON.readValue(parser, Feature.class);
+		current = parser.nextToken();
+		return f;
+	}
+
+	@Override
+	public void close() {
+		parser.close();
+	}
+}
@@ -1,25 +1,54 @@
 package io.github.pfwikis.layercompiler.steps.model.data;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.SoftReference;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.apache.commons.io.FileUtils;
 
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
+import io.github.pfwikis.model.Feature;
 import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.model.Properties;
 import io.github.pfwikis.run.Runner;
 import io.github.pfwikis.run.Runner.OutFile;
 import io.github.pfwikis.util.Jackson;
+import io.github.pfwikis.util.time.TimeRange;
 import lombok.AccessLevel;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
+import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
 @RequiredArgsConstructor(access = AccessLevel.PROTECTED)
 public abstract class GeoData {
 	
+	@Getter(lazy = true) @Accessors(fluent = true)
+	private final HashCode hash = computeHash();
+	/*temporary files written for this data, deleted on release*/
+	private final List<Path> tmpFiles = new ArrayList<>();
+	/*the file handed to every tool that reads this data*/
+	private Path tmpFile;
+	/*cleanups of files this data does not own alone, run on release*/
+	private final List<Runnable> releaseActions = new ArrayList<>();
+	/*parsed form shared by all readers, dropped when memory gets low*/
+	private final Object parseLock = new Object();
+	private volatile SoftReference<GeoDataColumnar> parsed;
+	
 	public abstract byte[] toBytes();
 	
 	public abstract boolean isEmpty();
@@ -28,16 +57,180 @@ public abstract class GeoData {
 		return new String(toBytes(), StandardCharsets.UTF_8);
 	}
 
-	@SneakyThrows
 	public FeatureCollection toFeatureCollection() {
+		return parsed().toFeatureCollection();
+	}
+	
+	@SneakyThrows
+	protected FeatureCollection parse() {
 		return Jackson.JSON.readerFor(FeatureCollection.class).readValue(toBytes());
 	}
 	
+	/**
+	 * The parsed form of this data. Concurrent callers wait for a single parse instead
+	 * of each parsing on their own.
+	 */
+	protected GeoDataColumnar parsed() {
+		var res = parsedIfPresent();
+		if(res != null)
+			return res;
+		synchronized(parseLock) {
+			res = parsedIfPresent();
+			if(res == null) {
+				res = new GeoDataColumnar(parse());
+				parsed = new SoftReference<>(res);
+			}
+			return res;
+		}
+	}
+	
+	protected GeoDataColumnar parsedIfPresent() {
+		var ref = parsed;
+		return ref==null?null:ref.get();
+	}
+	
+	/**
+	 * Streams the features one at a time instead of materializing the whole collection.
+	 * The features may be modified. The stream has to be closed.
+	 */
+	public Stream<Feature> streamFeatures() {
+		var p = parsedIfPresent();
+		if(p != null)
+			return p.streamFeatures();
+		return FeatureReader.stream(Jackson.JSON.createParser(toBytes()));
+	}
+	
+	public void forEachFeature(Consumer<Feature> action) {
+		try(var features = streamFeatures()) {
+			features.forEach(action);
+		}
+	}
+	
+	/**
+	 * Returns this data with the properties of all features changed. The change may only
+	 * depend on the properties as it is applied once to features with equal properties.
+	 * Implementations share the geometry instead of copying it where possible.
+	 */
+	public GeoData mapProperties(Consumer<Properties> change) {
+		return parsed().mapProperties(change);
+	}
+	
+	/**
+	 * Returns this data with the coordinates of every feature changed. The transform is called
+	 * once per feature with the interleaved lng/lat values of that feature being the range
+	 * [from, to) of a packed copy of all coordinates, which it changes in place.
+	 */
+	public GeoData mapCoordinates(CoordinateTransform transform) {
+		return parsed().mapCoordinates(transform);
+	}
+	
+	@FunctionalInterface
+	public interface CoordinateTransform {
+		void apply(double[] coordinates, int from, int to);
+	}
+	
+	/**
+	 * Returns a compressed copy of data held in the heap, other data is returned as is.
+	 */
+	public GeoData compressed() {
+		return this;
+	}
+	
+	/**
+	 * Writes the GeoJSON of this data to the given file.
+	 */
 	@SneakyThrows
+	public void writeTo(Path target) {
+		try(var out = new BufferedOutputStream(Files.newOutputStream(target), 1<<16)) {
+			writeTo(out);
+		}
+	}
+	
+	/**
+	 * Writes the GeoJSON of this data to the given stream without closing it.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		out.write(toBytes());
+	}
+	
+	/**
+	 * A rough size of the GeoJSON of this data, meant to be much cheaper than serializing it.
+	 */
+	public long estimateBytes() {
+		return toBytes().length;
+	}
+	
+	/*rough GeoJSON sizes of a point and of the rest of a feature, for estimates*/
+	protected static final int BYTES_PER_POINT = 40;
+	protected static final int BYTES_PER_FEATURE = 200;
+	
+	/**
+	 * If this data is held in the heap instead of being backed by a file.
+	 */
+	public boolean isInMemory() {
+		return true;
+	}
+	
+	protected HashCode computeHash() {
+		return Hashing.sha256().hashBytes(toBytes());
+	}
+	
+	/**
+	 * Identifies this data when time slices with identical inputs are processed only once.
+	 * By default that is the content hash, so the same data or data with identical content.
+	 */
+	public Object sliceKey() {
+		return hash();
+	}
+	
+	/**
+	 * This data used for a slice of the given time. Data whose features carry the time of
+	 * its slice has to be widened to it, other data is returned as is.
+	 */
+	public GeoData withSliceTime(TimeRange time) {
+		return this;
+	}
+	
+	/**
+	 * A file containing this data. It is only written on the first call and shared by all
+	 * later ones, so it must not be modified.
+	 */
 	public Path toTmpFile(StepExecutor step) {
-		var tmpFile = Runner.tmpGeojson(step, new OutFile());
-        FileUtils.writeByteArrayToFile(tmpFile, toBytes());
-        return tmpFile.toPath();
+		synchronized(tmpFiles) {
+			if(tmpFile == null) {
+				var file = Runner.tmpGeojson(step, new OutFile()).toPath();
+				writeTo(file);
+				tmpFiles.add(file);
+				tmpFile = file;
+			}
+			return tmpFile;
+		}
+	}
+	
+	/**
+	 * Runs the action once this data is released, e.g. to delete a directory shared with other data.
+	 */
+	public void onRelease(Runnable action) {
+		synchronized(tmpFiles) {
+			releaseActions.add(action);
+		}
+	}
+	
+	/**
+	 * Called once no step needs this data anymore. Frees held memory and deletes
+	 * temporary files. The data must not be used afterwards.
+	 */
+	public void release() {
+		parsed = null;
+		List<Runnable> actions;
+		synchronized(tmpFiles) {
+			tmpFiles.forEach(f->FileUtils.deleteQuietly(f.toFile()));
+			tmpFiles.clear();
+			tmpFile = null;
+			actions = List.copyOf(releaseActions);
+			releaseActions.clear();
+		}
+		actions.forEach(Runnable::run);
 	}
 	
 	/********    factory methods          ***/
@@ -54,6 +247,14 @@ public abstract class GeoData {
 	}
 	
 	public static GeoData from(FeatureCollection col) {
-		return new GeoDataOM<>(col);
+		return new GeoDataColumnar(col);
+	}
+
+	/**
+	 * A view of the features of merged data during the given time. The collection is shared
+	 * and must not be modified afterwards.
+	 */
+	public static GeoData timeView(FeatureCollection merged, TimeRange time) {
+		return new GeoDataTimeView(merged, time);
 	}
 }
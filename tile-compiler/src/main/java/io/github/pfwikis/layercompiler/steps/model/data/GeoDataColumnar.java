@@ -0,0 +1,333 @@
+package io.github.pfwikis.layercompiler.steps.model.data;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import io.github.pfwikis.model.Feature;
+import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.model.Geometry;
+import io.github.pfwikis.model.LngLat;
+import io.github.pfwikis.model.Properties;
+import io.github.pfwikis.util.Jackson;
+import lombok.SneakyThrows;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Features stored in columns instead of objects. All coordinates are packed into one array
+ * and every geometry is described by offsets into its parts, rings and points. Equal
+ * properties are only stored once. Feature collections are rebuilt from the columns
+ * without a JSON round trip, JSON is only written when the bytes are needed.
+ */
+public class GeoDataColumnar extends GeoData {
+
+	private static final byte NONE = 0;
+	private static final byte POINT = 1;
+	private static final byte MULTI_POINT = 2;
+	private static final byte LINE_STRING = 3;
+	private static final byte MULTI_LINE_STRING = 4;
+	private static final byte POLYGON = 5;
+	private static final byte MULTI_POLYGON = 6;
+
+	private final FeatureCollection shell;
+	private final byte[] types;
+	private final int[] featureParts;
+	private final int[] partRings;
+	private final int[] ringPoints;
+	private final double[] coordinates;
+	private final List<Properties> propertyDictionary;
+	private final int[] propertyIds;
+	private final List<Map<String, JsonNode>> extraFields;
+	private volatile boolean released = false;
+
+	GeoDataColumnar(FeatureCollection col) {
+		var features = col.getFeatures();
+		int n = features.size();
+		
+		var empty = new FeatureCollection();
+		empty.setProperties(col.getProperties());
+		col.getUnknownFields().forEach(empty::setOtherField);
+		empty.setFeatures(List.of());
+		shell = empty.copy();
+		
+		types = new byte[n];
+		featureParts = new int[n+1];
+		propertyIds = new int[n];
+		extraFields = new ArrayList<>(n);
+		
+		//offsets of where the rings of each part and the points of each ring start
+		var parts = new IntList();
+		parts.add(0);
+		var rings = new IntList();
+		rings.add(0);
+		var coords = new DoubleList();
+		var dictionary = new HashMap<Properties, Integer>();
+		propertyDictionary = new ArrayList<>();
+		
+		for(int i=0;i<n;i++) {
+			var f = features.get(i);
+			Geometry geom = f.getGeometry();
+			types[i] = switch(geom) {
+				case null -> NONE;
+				case Geometry.Point p -> {
+					addPart(parts, rings, coords, List.of(List.of(p.getCoordinates())));
+					yield POINT;
+				}
+				case Geometry.MultiPoint p -> {
+					addPart(parts, rings, coords, List.of(p.getCoordinates()));
+					yield MULTI_POINT;
+				}
+				case Geometry.LineString l -> {
+					addPart(parts, rings, coords, List.of(l.getCoordinates()));
+					yield LINE_STRING;
+				}
+				case Geometry.MultiLineString l -> {
+					addPart(parts, rings, coords, l.getCoordinates());
+					yield MULTI_LINE_STRING;
+				}
+				case Geometry.Polygon p -> {
+					addPart(parts, rings, coords, p.getCoordinates());
+					yield POLYGON;
+				}
+				case Geometry.MultiPolygon p -> {
+					p.getCoordinates().forEach(part->addPart(parts, rings, coords, part));
+					yield MULTI_POLYGON;
+				}
+				default -> throw new IllegalStateException("Unknown geometry "+geom.getClass());
+			};
+			featureParts[i+1] = parts.size()-1;
+			
+			propertyIds[i] = dictionary.computeIfAbsent(f.getProperties(), p-> {
+				propertyDictionary.add(p);
+				return propertyDictionary.size()-1;
+			});
+			extraFields.add(f.getUnknownFields().isEmpty()?null:new HashMap<>(f.getUnknownFields()));
+		}
+		
+		partRings = parts.toArray();
+		ringPoints = rings.toArray();
+		coordinates = coords.toArray();
+	}
+
+	/*shares the offsets and extra fields with the given data*/
+	private GeoDataColumnar(GeoDataColumnar geometry, double[] coordinates, List<Properties> propertyDictionary) {
+		this.shell = geometry.shell;
+		this.types = geometry.types;
+		this.featureParts = geometry.featureParts;
+		this.partRings = geometry.partRings;
+		this.ringPoints = geometry.ringPoints;
+		this.coordinates = coordinates;
+		this.propertyDictionary = propertyDictionary;
+		this.propertyIds = geometry.propertyIds;
+		this.extraFields = geometry.extraFields;
+	}
+
+	private static void addPart(IntList parts, IntList rings, DoubleList coords, List<List<LngLat>> part) {
+		for(var ring:part) {
+			for(var p:ring) {
+				coords.add(p.lng());
+				coords.add(p.lat());
+			}
+			rings.add(coords.size()/2);
+		}
+		parts.add(rings.size()-1);
+	}
+
+	private FeatureCollection build(boolean copyProperties) {
+		if(released)
+			throw new IllegalStateException("Data was already released");
+		FeatureCollection res = shell.copy();
+		var features = new ArrayList<Feature>(types.length);
+		for(int i=0;i<types.length;i++) {
+			features.add(buildFeature(i, copyProperties));
+		}
+		res.setFeatures(features);
+		return res;
+	}
+
+	private Feature buildFeature(int i, boolean copyProperties) {
+		var f = new Feature();
+		f.setGeometry(buildGeometry(i));
+		var props = propertyDictionary.get(propertyIds[i]);
+		f.setProperties(copyProperties?props.copy():props);
+		if(extraFields.get(i) != null)
+			extraFields.get(i).forEach((k,v)->f.setOtherField(k, copyProperties?v.deepCopy():v));
+		return f;
+	}
+
+	private Geometry buildGeometry(int feature) {
+		int firstPart = featureParts[feature];
+		return switch(types[feature]) {
+			case NONE -> null;
+			case POINT -> {
+				var g = new Geometry.Point();
+				g.setCoordinates(point(ringPoints[partRings[firstPart]]));
+				yield g;
+			}
+			case MULTI_POINT -> {
+				var g = new Geometry.MultiPoint();
+				g.setCoordinates(part(firstPart).getFirst());
+				yield g;
+			}
+			case LINE_STRING -> {
+				var g = new Geometry.LineString();
+				g.setCoordinates(part(firstPart).getFirst());
+				yield g;
+			}
+			case MULTI_LINE_STRING -> {
+				var g = new Geometry.MultiLineString();
+				g.setCoordinates(part(firstPart));
+				yield g;
+			}
+			case POLYGON -> {
+				var g = new Geometry.Polygon();
+				g.setCoordinates(part(firstPart));
+				yield g;
+			}
+			case MULTI_POLYGON -> {
+				var g = new Geometry.MultiPolygon();
+				var polygons = new ArrayList<List<List<LngLat>>>();
+				for(int p=firstPart;p<featureParts[feature+1];p++) {
+					polygons.add(part(p));
+				}
+				g.setCoordinates(polygons);
+				yield g;
+			}
+			default -> throw new IllegalStateException();
+		};
+	}
+
+	private List<List<LngLat>> part(int part) {
+		var res = new ArrayList<List<LngLat>>(partRings[part+1]-partRings[part]);
+		for(int r=partRings[part];r<partRings[part+1];r++) {
+			var ring = new ArrayList<LngLat>(ringPoints[r+1]-ringPoints[r]);
+			for(int p=ringPoints[r];p<ringPoints[r+1];p++) {
+				ring.add(point(p));
+			}
+			res.add(ring);
+		}
+		return res;
+	}
+
+	private LngLat point(int index) {
+		return new LngLat(coordinates[2*index], coordinates[2*index+1]);
+	}
+
+	@Override
+	public Stream<Feature> streamFeatures() {
+		if(released)
+			throw new IllegalStateException("Data was already released");
+		return IntStream.range(0, types.length).mapToObj(i->buildFeature(i, true));
+	}
+
+	@Override
+	public GeoData compressed() {
+		return new GeoDataCompressed(this);
+	}
+
+	@Override
+	public GeoData mapProperties(Consumer<Properties> change) {
+		if(released)
+			throw new IllegalStateException("Data was already released");
+		var changed = new ArrayList<Properties>(propertyDictionary.size());
+		for(var p:propertyDictionary) {
+			Properties copy = p.copy();
+			change.accept(copy);
+			changed.add(copy);
+		}
+		return new GeoDataColumnar(this, coordinates, changed);
+	}
+
+	@Override
+	public GeoData mapCoordinates(CoordinateTransform transform) {
+		if(released)
+			throw new IllegalStateException("Data was already released");
+		var changed = coordinates.clone();
+		for(int i=0;i<types.length;i++) {
+			int from = 2*ringPoints[partRings[featureParts[i]]];
+			int to = 2*ringPoints[partRings[featureParts[i+1]]];
+			if(from < to)
+				transform.apply(changed, from, to);
+		}
+		return new GeoDataColumnar(this, changed, propertyDictionary);
+	}
+
+	@Override
+	@SneakyThrows
+	public byte[] toBytes() {
+		//only serialized, so the properties don't need to be copied
+		return Jackson.JSON.writeValueAsBytes(build(false));
+	}
+
+	@Override
+	public void writeTo(OutputStream out) {
+		Jackson.JSON.writeValue(CloseShieldOutputStream.wrap(out), build(false));
+	}
+
+	@Override
+	public long estimateBytes() {
+		return (long)coordinates.length/2*BYTES_PER_POINT + (long)types.length*BYTES_PER_FEATURE;
+	}
+
+	@Override
+	public FeatureCollection toFeatureCollection() {
+		return build(true);
+	}
+
+	@Override
+	public void release() {
+		super.release();
+		released = true;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return false;
+	}
+
+	private static class IntList {
+		private int[] values = new int[16];
+		private int size = 0;
+
+		void add(int v) {
+			if(size == values.length)
+				values = Arrays.copyOf(values, size*2);
+			values[size++] = v;
+		}
+
+		int size() {
+			return size;
+		}
+
+		int[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+
+	private static class DoubleList {
+		private double[] values = new double[64];
+		private int size = 0;
+
+		void add(double v) {
+			if(size == values.length)
+				values = Arrays.copyOf(values, size*2);
+			values[size++] = v;
+		}
+
+		int size() {
+			return size;
+		}
+
+		double[] toArray() {
+			return Arrays.copyOf(values, size);
+		}
+	}
+}
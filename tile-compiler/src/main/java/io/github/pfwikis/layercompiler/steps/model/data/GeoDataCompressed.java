@@ -0,0 +1,99 @@
+package io.github.pfwikis.layercompiler.steps.model.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import com.google.common.io.CountingOutputStream;
+
+import io.github.pfwikis.model.Feature;
+import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.util.Jackson;
+import lombok.SneakyThrows;
+
+/**
+ * Data held as deflated GeoJSON. Used for results that stay alive for a long time, it
+ * trades some CPU on every read for a much smaller footprint in the heap.
+ */
+public class GeoDataCompressed extends GeoData {
+
+	private volatile byte[] compressed;
+	/*size of the inflated GeoJSON*/
+	private final long size;
+
+	@SneakyThrows
+	GeoDataCompressed(GeoData data) {
+		var out = new ByteArrayOutputStream();
+		try(var deflater = new CountingOutputStream(new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED), 1<<16))) {
+			data.writeTo(deflater);
+			size = deflater.getCount();
+		}
+		compressed = out.toByteArray();
+	}
+
+	private InputStream open() {
+		var res = compressed;
+		if(res == null)
+			throw new IllegalStateException("Data was already released");
+		return new InflaterInputStream(new ByteArrayInputStream(res), new Inflater(), 1<<16);
+	}
+
+	@Override
+	@SneakyThrows
+	public byte[] toBytes() {
+		try(var in = open()) {
+			return in.readAllBytes();
+		}
+	}
+
+	@Override
+	public void writeTo(OutputStream out) throws IOException {
+		try(var in = open()) {
+			in.transferTo(out);
+		}
+	}
+
+	@Override
+	@SneakyThrows
+	protected FeatureCollection parse() {
+		try(var in = open()) {
+			return Jackson.JSON.readerFor(FeatureCollection.class).readValue(in);
+		}
+	}
+
+	@Override
+	public Stream<Feature> streamFeatures() {
+		var p = parsedIfPresent();
+		if(p != null)
+			return p.streamFeatures();
+		return FeatureReader.stream(Jackson.JSON.createParser(open()));
+	}
+
+	@Override
+	public long estimateBytes() {
+		return size;
+	}
+
+	@Override
+	public GeoData compressed() {
+		return this;
+	}
+
+	@Override
+	public void release() {
+		super.release();
+		compressed = null;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return false;
+	}
+}
@@ -1,5 +1,11 @@
 package io.github.pfwikis.layercompiler.steps.model.data;
 
+import java.util.stream.Stream;
+
+import com.google.common.hash.HashCode;
+
+import io.github.pfwikis.model.Feature;
+
 public class GeoDataEmpty extends GeoData {
 	public static GeoData INSTANCE = new GeoDataEmpty();
 	
@@ -8,6 +14,31 @@ public class GeoDataEmpty extends GeoData {
 		throw new UnsupportedOperationException();
 	}
 
+	@Override
+	public Stream<Feature> streamFeatures() {
+		return Stream.empty();
+	}
+
+	@Override
+	public GeoData mapCoordinates(CoordinateTransform transform) {
+		return this;
+	}
+
+	@Override
+	protected HashCode computeHash() {
+		return HashCode.fromInt(0);
+	}
+
+	@Override
+	public long estimateBytes() {
+		return 0;
+	}
+
+	@Override
+	public boolean isInMemory() {
+		return false;
+	}
+
 	@Override
 	public boolean isEmpty() {
 		return true;
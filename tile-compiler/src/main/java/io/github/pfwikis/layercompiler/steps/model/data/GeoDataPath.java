@@ -1,11 +1,19 @@
 package io.github.pfwikis.layercompiler.steps.model.data;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.stream.Stream;
 
-import com.google.common.io.Files;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
+import io.github.pfwikis.model.Feature;
 import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.run.GeoFormat;
+import io.github.pfwikis.run.Runner;
+import io.github.pfwikis.run.Tools;
 import io.github.pfwikis.util.Jackson;
 import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
@@ -14,10 +22,42 @@ import lombok.SneakyThrows;
 public class GeoDataPath extends GeoData {
 	
 	private final Path path;
+	/*GeoJSON version of a file in another format, converted when first needed*/
+	private volatile GeoData geojson;
+	
+	@SneakyThrows
+	private Path geojsonPath() {
+		if(GeoFormat.of(path) == GeoFormat.GEOJSON)
+			return path;
+		if(geojson == null) {
+			synchronized(this) {
+				if(geojson == null)
+					geojson = Tools.mapshaper(null, this);
+			}
+		}
+		return geojson.toTmpFile(null);
+	}
 	
 	@Override @SneakyThrows
-	public FeatureCollection toFeatureCollection() {
-		return Jackson.JSON.readerFor(FeatureCollection.class).readValue(path.toFile());
+	protected FeatureCollection parse() {
+		try(var file = new MappedFile(geojsonPath())) {
+			return Jackson.JSON.readerFor(FeatureCollection.class).readValue(file.inputStream());
+		}
+	}
+	
+	@Override
+	@SneakyThrows
+	public Stream<Feature> streamFeatures() {
+		var p = parsedIfPresent();
+		if(p != null)
+			return p.streamFeatures();
+		var file = new MappedFile(geojsonPath());
+		try {
+			return FeatureReader.stream(Jackson.JSON.createParser(file.inputStream())).onClose(file::close);
+		} catch(RuntimeException e) {
+			file.close();
+			throw e;
+		}
 	}
 	
 	@Override
@@ -28,7 +68,42 @@ public class GeoDataPath extends GeoData {
 	@Override
 	@SneakyThrows
 	public byte[] toBytes() {
-		return Files.toByteArray(path.toFile());
+		return Files.readAllBytes(geojsonPath());
+	}
+
+	@Override
+	@SneakyThrows
+	public void writeTo(Path target) {
+		Files.copy(geojsonPath(), target, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	@Override
+	@SneakyThrows
+	protected HashCode computeHash() {
+		try(var file = new MappedFile(path)) {
+			return file.hash(Hashing.sha256());
+		}
+	}
+
+	@Override
+	public void release() {
+		super.release();
+		if(geojson != null)
+			geojson.release();
+		//only delete intermediate results, never sources or cache entries
+		if(Runner.isTmpFile(path))
+			path.toFile().delete();
+	}
+
+	@Override
+	@SneakyThrows
+	public long estimateBytes() {
+		return Files.size(path);
+	}
+
+	@Override
+	public boolean isInMemory() {
+		return false;
 	}
 
 	@Override
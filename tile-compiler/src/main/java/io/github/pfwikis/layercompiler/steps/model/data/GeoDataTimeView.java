@@ -0,0 +1,170 @@
+package io.github.pfwikis.layercompiler.steps.model.data;
+
+import java.io.OutputStream;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.commons.io.output.CloseShieldOutputStream;
+
+import io.github.pfwikis.model.Feature;
+import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.model.Properties;
+import io.github.pfwikis.util.Jackson;
+import io.github.pfwikis.util.time.TimeRange;
+import lombok.SneakyThrows;
+import tools.jackson.databind.util.TokenBuffer;
+
+/**
+ * The features of merged data that exist during a time range. All views of the same merged
+ * data share its features, only the properties carrying the time are copied and only when
+ * the data is actually read.
+ * <p>
+ * The features carry the time of the view, so its hash differs for every slice even if the
+ * same features exist in both. The step and tool caches store such slices separately.
+ */
+public class GeoDataTimeView extends GeoData {
+	/*the merged features, must never be modified*/
+	private volatile FeatureCollection merged;
+	private final TimeRange time;
+	/*indices of the features in the view, null for all that exist during the time*/
+	private final BitSet members;
+
+	GeoDataTimeView(FeatureCollection merged, TimeRange time) {
+		this(merged, time, null);
+	}
+
+	private GeoDataTimeView(FeatureCollection merged, TimeRange time, BitSet members) {
+		this.merged = merged;
+		this.time = time;
+		this.members = members;
+	}
+
+	private FeatureCollection source() {
+		var source = merged;
+		if(source == null)
+			throw new IllegalStateException("Data was already released");
+		return source;
+	}
+
+	private BitSet members(List<Feature> features) {
+		if(members != null)
+			return members;
+		var res = new BitSet(features.size());
+		for(int i=0;i<features.size();i++) {
+			if(time.intersects(features.get(i).getProperties().getTime()))
+				res.set(i);
+		}
+		return res;
+	}
+
+	private Stream<Feature> streamView() {
+		var features = source().getFeatures();
+		return members(features).stream().mapToObj(i->view(features.get(i)));
+	}
+
+	/**
+	 * Views of the same merged data are equal slices if they contain the same features,
+	 * no matter the time they overlay.
+	 */
+	@Override
+	public Object sliceKey() {
+		var source = source();
+		return new SliceKey(source, members(source.getFeatures()));
+	}
+
+	private record SliceKey(FeatureCollection merged, BitSet members) {
+		@Override
+		public boolean equals(Object o) {
+			//the merged collection is compared by identity, its deep equals is far too expensive
+			return o instanceof SliceKey k && k.merged == merged && k.members.equals(members);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31*System.identityHashCode(merged)+members.hashCode();
+		}
+	}
+
+	/**
+	 * The same features with the given time, which must contain the time of this view.
+	 */
+	@Override
+	public GeoData withSliceTime(TimeRange time) {
+		var source = source();
+		return new GeoDataTimeView(source, time, members(source.getFeatures()));
+	}
+
+	private Feature view(Feature f) {
+		var v = new Feature();
+		v.setGeometry(f.getGeometry());
+		v.setType(f.getType());
+		f.getUnknownFields().forEach(v::setOtherField);
+		Properties props = f.getProperties().copy();
+		props.setTime(time.intersection(
+			Optional.ofNullable(props.getTime())
+				.orElse(TimeRange.always())
+		));
+		v.setProperties(props);
+		return v;
+	}
+
+	private FeatureCollection view() {
+		var res = new FeatureCollection();
+		streamView().forEach(res.getFeatures()::add);
+		return res;
+	}
+
+	@Override
+	public Stream<Feature> streamFeatures() {
+		//copied one by one because the geometry is shared
+		return streamView().map(f->f.<Feature>copy());
+	}
+
+	@Override
+	@SneakyThrows
+	public byte[] toBytes() {
+		return Jackson.JSON.writeValueAsBytes(view());
+	}
+
+	@Override
+	public void writeTo(OutputStream out) {
+		Jackson.JSON.writeValue(CloseShieldOutputStream.wrap(out), view());
+	}
+
+	@Override
+	@SneakyThrows
+	public FeatureCollection toFeatureCollection() {
+		//the caller may modify the result, so the shared geometry has to be copied here
+		TokenBuffer tb = new TokenBuffer(Jackson.JSON._serializationContext(), false);
+		Jackson.JSON.writeValue(tb, view());
+		return Jackson.JSON.readValue(tb.asParser(), FeatureCollection.class);
+	}
+
+	@Override
+	public long estimateBytes() {
+		var features = source().getFeatures();
+		return members(features).stream()
+			.mapToObj(features::get)
+			.mapToLong(f->BYTES_PER_FEATURE + (f.getGeometry()==null?0:f.getGeometry().size()*BYTES_PER_POINT))
+			.sum();
+	}
+
+	@Override
+	public GeoData compressed() {
+		//the geometry is shared with the other views, a compressed copy would only add to it
+		return this;
+	}
+
+	@Override
+	public void release() {
+		super.release();
+		merged = null;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return false;
+	}
+}
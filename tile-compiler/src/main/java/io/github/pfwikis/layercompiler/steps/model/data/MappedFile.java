@@ -0,0 +1,72 @@
+package io.github.pfwikis.layercompiler.steps.model.data;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+
+/**
+ * A file mapped into memory, so that it can be parsed or hashed without copying it into the
+ * heap. The mapping is released on close instead of whenever the GC gets to it, which also
+ * allows deleting the file right afterwards on Windows.
+ */
+class MappedFile implements Closeable {
+
+	private static final int CHUNK = 1<<20;
+
+	private final Arena arena = Arena.ofShared();
+	private final MemorySegment segment;
+
+	MappedFile(Path path) throws IOException {
+		try(var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+		} catch(IOException | RuntimeException e) {
+			arena.close();
+			throw e;
+		}
+	}
+
+	HashCode hash(HashFunction function) {
+		var hasher = function.newHasher();
+		for(long pos=0;pos<segment.byteSize();pos+=CHUNK) {
+			hasher.putBytes(segment.asSlice(pos, Math.min(CHUNK, segment.byteSize()-pos)).asByteBuffer());
+		}
+		return hasher.hash();
+	}
+
+	InputStream inputStream() {
+		return new InputStream() {
+			private long pos = 0;
+
+			@Override
+			public int read() {
+				if(pos >= segment.byteSize())
+					return -1;
+				return segment.get(ValueLayout.JAVA_BYTE, pos++) & 0xFF;
+			}
+
+			@Override
+			public int read(byte[] b, int off, int len) {
+				int n = (int)Math.min(len, segment.byteSize()-pos);
+				if(n <= 0)
+					return len==0?0:-1;
+				MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, pos, b, off, n);
+				pos += n;
+				return n;
+			}
+		};
+	}
+
+	@Override
+	public void close() {
+		arena.close();
+	}
+}
@@ -26,6 +26,7 @@ import io.github.pfwikis.model.FeatureCollection;
 import io.github.pfwikis.model.Geometry;
 import io.github.pfwikis.model.Geometry.ILineString;
 import io.github.pfwikis.model.LngLat;
+import io.github.pfwikis.run.Runner;
 import io.github.pfwikis.run.Tools;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -42,9 +43,11 @@ public class ShapeRivers extends StepExecutor {
 
 		var rivers = collectRivers(in.getInput());
 		markSprings(in, in.getInput(), rivers);
-		interpolateWidth(rivers);
-		log.info("Processing " + rivers.size() + " river points");
-		drawShapes(rivers, result);
+		try(var _=Runner.reserveCpu(this)) {
+			interpolateWidth(rivers);
+			log.info("Processing " + rivers.size() + " river points");
+			drawShapes(rivers, result);
+		}
 
 		var cleaned = Tools.mapshaper(this, GeoData.from(result), "--filter-fields", "-clean", "sliver-control=0", "gap-fill-area=0", "-dissolve2", "-explode");
 		/*log.info(
@@ -28,7 +28,7 @@ public class TimeMetaCollect extends StepExecutor {
     public Content process(Inputs in) throws Exception {
     	var barriers = new TreeSet<Integer>();
     	for(var layer : in.getInputs().values()) {
-    		barriers.addAll(TimeSlicer.extractBarriers(layer.toFeatureCollection()));
+    		barriers.addAll(TimeSlicer.extractBarriers(layer));
     	}
     	
     	var slices = TimeSlicer.barriersToSlices(barriers)
@@ -10,6 +10,7 @@ import io.github.pfwikis.util.time.TimeRange;
 import lombok.Setter;
 
 @Setter
+@Time.UsesSliceTime
 @Time.Requirement(Time.Requirement.Value.REQUIRES_SLICED)
 public class TimeMetaLimit extends StepExecutor {
 	
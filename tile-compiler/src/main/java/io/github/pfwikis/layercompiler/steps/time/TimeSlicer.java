@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.TreeSet;
 
+import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
 import io.github.pfwikis.model.FeatureCollection;
 import io.github.pfwikis.util.time.TimeRange;
 
@@ -17,6 +18,14 @@ public class TimeSlicer {
 		return barriers;
 	}
 
+	public static TreeSet<Integer> extractBarriers(GeoData data) {
+		var barriers = new TreeSet<Integer>();
+		data.forEachFeature(f-> {
+			f.getProperties().getTime().forEachBarrier(barriers::add);
+		});
+		return barriers;
+	}
+
 	public static List<TimeRange> barriersToSlices(TreeSet<Integer> barriers) {
 		var arr = barriers.toArray(Integer[]::new);
 		var result = new ArrayList<TimeRange>();
@@ -1,9 +1,24 @@
 package io.github.pfwikis.model;
 
-public record Edge(LngLat a, LngLat b) {
+/**
+ * An edge between two points on the {@link FixedPoint} grid.
+ */
+public record Edge(long a, long b) {
+
+	public static Edge of(LngLat a, LngLat b) {
+		return new Edge(FixedPoint.pack(a), FixedPoint.pack(b));
+	}
+
+	public LngLat start() {
+		return FixedPoint.unpack(a);
+	}
+
+	public LngLat end() {
+		return FixedPoint.unpack(b);
+	}
 
     public Edge norm() {
-        return new Edge(a.norm(), b.norm());
+        return Edge.of(start().norm(), end().norm());
     }
 
 }
@@ -0,0 +1,39 @@
+package io.github.pfwikis.model;
+
+/**
+ * Coordinates on a fixed 1e-7 degree grid (~1cm) packed into a single long. Packed points
+ * compare, hash and sort like their (lng, lat) pairs without boxing or rounding via BigDecimal.
+ * Both values have to be within ±214.7 degrees.
+ */
+public class FixedPoint {
+
+	public static final double SCALE = 1e7;
+
+	public static long pack(double lng, double lat) {
+		//the sign bit of the lower half is flipped so that packed values sort by (lng, lat)
+		return ((long)toGrid(lng) << 32) | ((toGrid(lat) ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+	}
+
+	public static long pack(LngLat ll) {
+		return pack(ll.lng(), ll.lat());
+	}
+
+	public static LngLat unpack(long packed) {
+		return new LngLat(lng(packed), lat(packed));
+	}
+
+	public static double lng(long packed) {
+		return (int)(packed >> 32) / SCALE;
+	}
+
+	public static double lat(long packed) {
+		return ((int)packed ^ Integer.MIN_VALUE) / SCALE;
+	}
+
+	private static int toGrid(double v) {
+		long grid = Math.round(v * SCALE);
+		if(grid < Integer.MIN_VALUE || grid > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("Coordinate "+v+" is outside of the fixed point range");
+		return (int)grid;
+	}
+}
@@ -0,0 +1,37 @@
+package io.github.pfwikis.run;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Rough resource classes of the work done during a build. The memory of external tools
+ * grows with the size of their input files, so it is estimated per call.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum Cost {
+	/** small external tools, e.g. spritezero */
+	LIGHT(1, 128L<<20, 1),
+	/** mapshaper keeps all layers as JS objects in memory */
+	MAPSHAPER(1, 256L<<20, 8),
+	/** qgis_process has a large startup footprint and buffers are expensive */
+	QGIS(1, 1L<<30, 16),
+	/** computations inside the JVM, memory is covered by the heap */
+	JVM_CPU(1, 0, 0);
+
+	private final int cores;
+	private final long baseMemory;
+	private final long memoryPerInputByte;
+
+	public long estimateMemory(long inputBytes) {
+		return baseMemory+memoryPerInputByte*inputBytes;
+	}
+
+	public static Cost of(String command) {
+		return switch(command) {
+			case "mapshaper", "geojson-polygon-labels" -> MAPSHAPER;
+			case "qgis_process" -> QGIS;
+			default -> LIGHT;
+		};
+	}
+}
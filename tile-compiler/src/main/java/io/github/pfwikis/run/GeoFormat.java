@@ -0,0 +1,24 @@
+package io.github.pfwikis.run;
+
+import java.nio.file.Path;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * File formats used to exchange data with tools. GeoJSON is what the JVM side reads,
+ * FlatGeobuf is a much smaller and faster binary format for data passed between tools.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum GeoFormat {
+	GEOJSON("geojson", "geojson"),
+	FLATGEOBUF("fgb", "flatgeobuf");
+
+	private final String extension;
+	private final String mapshaperFormat;
+
+	public static GeoFormat of(Path path) {
+		return path.getFileName().toString().endsWith("."+FLATGEOBUF.extension)?FLATGEOBUF:GEOJSON;
+	}
+}
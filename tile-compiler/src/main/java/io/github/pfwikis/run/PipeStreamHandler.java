@@ -0,0 +1,106 @@
+package io.github.pfwikis.run;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.commons.exec.ExecuteStreamHandler;
+
+import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
+import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.util.Jackson;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes an input to the stdin of a tool and parses its stdout as GeoJSON while the tool
+ * is still running, so that neither has to go through a temporary file.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class PipeStreamHandler implements ExecuteStreamHandler {
+
+	/*written to stdin, null to close stdin right away*/
+	private final GeoData stdIn;
+	/*if stdout is the result instead of a log*/
+	private final boolean parseStdOut;
+	private final OutputStream stdOutLog;
+	private final OutputStream stdErrLog;
+
+	private final List<Thread> threads = new ArrayList<>();
+	private final CompletableFuture<FeatureCollection> result = new CompletableFuture<>();
+	private OutputStream processIn;
+	private InputStream processOut;
+	private InputStream processErr;
+
+	@Override
+	public void setProcessInputStream(OutputStream os) {
+		processIn = os;
+	}
+
+	@Override
+	public void setProcessOutputStream(InputStream is) {
+		processOut = is;
+	}
+
+	@Override
+	public void setProcessErrorStream(InputStream is) {
+		processErr = is;
+	}
+
+	@Override
+	public void start() {
+		threads.add(Thread.ofVirtual().start(()-> {
+			try(var in = processIn) {
+				if(stdIn != null)
+					stdIn.writeTo(in);
+			} catch(IOException e) {
+				//the tool stopped reading, its exit code tells why
+				log.debug("Could not write stdin", e);
+			}
+		}));
+		threads.add(Thread.ofVirtual().start(()-> {
+			try(var out = processOut) {
+				if(parseStdOut)
+					result.complete(Jackson.JSON.readValue(out, FeatureCollection.class));
+				else
+					out.transferTo(stdOutLog);
+			} catch(Exception e) {
+				result.completeExceptionally(e);
+			}
+		}));
+		threads.add(Thread.ofVirtual().start(()-> {
+			try(var err = processErr) {
+				err.transferTo(stdErrLog);
+			} catch(IOException e) {
+				log.debug("Could not read stderr", e);
+			}
+		}));
+	}
+
+	@Override
+	public void stop() throws IOException {
+		try {
+			for(var t:threads)
+				t.join();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		}
+	}
+
+	FeatureCollection result() throws IOException {
+		try {
+			return result.get();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch(ExecutionException e) {
+			throw new IOException("Could not parse the output of the tool", e.getCause());
+		}
+	}
+}
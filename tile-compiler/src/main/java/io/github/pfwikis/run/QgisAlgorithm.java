@@ -0,0 +1,38 @@
+package io.github.pfwikis.run;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One algorithm of a chain run by {@link Tools#qgisChain}. The parameters are given like
+ * on the qgis_process command line, e.g. "--DISTANCE=5". The input of each algorithm is the
+ * output of the one before.
+ */
+public record QgisAlgorithm(String id, String outputName, List<String> params) {
+
+	public static QgisAlgorithm of(String id, String... params) {
+		return new QgisAlgorithm(id, "OUTPUT", List.of(params));
+	}
+
+	/**
+	 * Returns null if the arguments contain more than plain parameters, e.g. further layers.
+	 */
+	static QgisAlgorithm ofArgs(String id, String outputName, Object[] args) {
+		var params = new ArrayList<String>();
+		return flatten(args, params)?new QgisAlgorithm(id, outputName, params):null;
+	}
+
+	private static boolean flatten(Object[] args, List<String> into) {
+		for(var arg:args) {
+			boolean plain = switch(arg) {
+				case String s -> into.add(s);
+				case Object[] arr -> flatten(arr, into);
+				case List<?> l -> flatten(l.toArray(), into);
+				case null, default -> false;
+			};
+			if(!plain)
+				return false;
+		}
+		return true;
+	}
+}
@@ -0,0 +1,107 @@
+package io.github.pfwikis.run;
+
+import java.io.Closeable;
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Admission control for work that needs cores and memory. Waiting callers are served by
+ * priority, but smaller requests may overtake a request that does not fit yet. To prevent
+ * starvation every waiter can only be overtaken a limited number of times.
+ */
+public class ResourceLimiter {
+
+	private static final int MAX_OVERTAKEN = 8;
+
+	@RequiredArgsConstructor
+	private static class Waiter {
+		private final long priority;
+		private final long arrival;
+		private final int cores;
+		private final long memory;
+		private int overtaken = 0;
+	}
+
+	public record Reservation(ResourceLimiter limiter, int cores, long memory) implements Closeable {
+		@Override
+		public void close() {
+			limiter.release(this);
+		}
+	}
+
+	@Getter
+	private final int totalCores;
+	@Getter
+	private final long totalMemory;
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition changed = lock.newCondition();
+	private final AtomicLong arrivals = new AtomicLong();
+	private final TreeSet<Waiter> waiting = new TreeSet<>(
+		Comparator.<Waiter>comparingLong(w->w.priority).reversed()
+			.thenComparingLong(w->w.arrival)
+	);
+	private int freeCores;
+	private long freeMemory;
+
+	public ResourceLimiter(int cores, long memory) {
+		this.totalCores = cores;
+		this.totalMemory = memory;
+		this.freeCores = cores;
+		this.freeMemory = memory;
+	}
+
+	public Reservation acquire(long priority, int cores, long memory) {
+		//requests bigger than the machine still have to run at some point
+		var me = new Waiter(
+			priority,
+			arrivals.getAndIncrement(),
+			Math.min(cores, totalCores),
+			Math.min(memory, totalMemory)
+		);
+		lock.lock();
+		try {
+			waiting.add(me);
+			while(!mayRun(me)) {
+				changed.awaitUninterruptibly();
+			}
+			for(var w:waiting.headSet(me)) {
+				w.overtaken++;
+			}
+			waiting.remove(me);
+			freeCores -= me.cores;
+			freeMemory -= me.memory;
+			//the next waiter might be able to run as well
+			changed.signalAll();
+			return new Reservation(this, me.cores, me.memory);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private boolean mayRun(Waiter me) {
+		if(me.cores > freeCores || me.memory > freeMemory)
+			return false;
+		for(var w:waiting.headSet(me)) {
+			if(w.overtaken >= MAX_OVERTAKEN)
+				return false;
+		}
+		return true;
+	}
+
+	private void release(Reservation r) {
+		lock.lock();
+		try {
+			freeCores += r.cores();
+			freeMemory += r.memory();
+			changed.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+}
@@ -11,25 +11,31 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.exec.CommandLine;
 import org.apache.commons.exec.DefaultExecutor;
 import org.apache.commons.exec.ExecuteException;
 import org.apache.commons.exec.ExecuteResultHandler;
+import org.apache.commons.exec.ExecuteStreamHandler;
 import org.apache.commons.exec.PumpStreamHandler;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
+import io.github.pfwikis.util.FileHashes;
+import io.github.pfwikis.util.Trace;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,54 +43,153 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class Runner {
 	
-	private static Semaphore limiter = new Semaphore(8, true);
-	public static void setMaximumParallelism(int limit) {
-		limiter = new Semaphore(limit, true);
-		
+	private static final RunningProcesses PROCESSES = new RunningProcesses();
+	private static ResourceLimiter limiter = new ResourceLimiter(4, 8L<<30);
+	public static void setAvailableResources(int cores, long memory) {
+		limiter = new ResourceLimiter(cores, memory);
+		log.info("Tools can use {} cores and {} MB of memory", cores, memory>>20);
+	}
+	
+	/*steps on a longer critical path get the next free slot first*/
+	private static long priority(StepExecutor step) {
+		if(step == null || step.getDescription() == null)
+			return 0;
+		return step.getDescription().getCriticalPath().toMillis();
 	}
 	
+	/**
+	 * Reserves a core for computations inside the JVM. Must not be held while calling tools.
+	 */
+	public static ResourceLimiter.Reservation reserveCpu(StepExecutor step) {
+		return limiter.acquire(priority(step), Cost.JVM_CPU.getCores(), 0);
+	}
+	
+    /**
+     * Kills all running tools and makes every following tool call fail immediately.
+     */
+    public static void cancelAll() {
+    	if(!PROCESSES.isCancelled())
+    		log.warn("Cancelling all running tools");
+    	PROCESSES.cancel();
+    }
+
+    private static volatile ToolWorkers mapshaperWorkers = null;
+    private static volatile ToolWorkers qgisWorkers = null;
+    
+    /**
+     * Runs mapshaper calls in up to the given number of long-lived worker processes instead
+     * of starting a new process for every call. Only used when mapshaper can be called natively.
+     */
+    public static void useMapshaperWorkers(int count) throws IOException {
+    	if(count <= 0 || ToolVariant.getMapshaper() != ToolVariant.NATIVE)
+    		return;
+    	mapshaperWorkers = ToolWorkers.start("mapshaper", "node", "mapshaper-worker.js", count, PROCESSES);
+    	log.info("Running mapshaper in up to {} workers", count);
+    }
+    
+    /**
+     * Runs QGIS algorithms in up to the given number of long-lived PyQGIS processes. Requires
+     * a python3 with the qgis bindings and only used when qgis_process can be called natively.
+     */
+    public static void useQgisWorkers(int count) throws IOException {
+    	if(count <= 0 || ToolVariant.getQgisProcess() != ToolVariant.NATIVE)
+    		return;
+    	qgisWorkers = ToolWorkers.start("qgis", "python3", "qgis-worker.py", count, PROCESSES);
+    	log.info("Running QGIS in up to {} workers", count);
+    }
+    
+    /**
+     * If QGIS algorithms run in workers, see {@link #useQgisWorkers(int)}.
+     */
+    public static boolean hasQgisWorkers() {
+    	return qgisWorkers != null;
+    }
+    
+    public static void stopWorkers() {
+    	var mapshaper = mapshaperWorkers;
+    	var qgis = qgisWorkers;
+    	mapshaperWorkers = null;
+    	qgisWorkers = null;
+    	if(mapshaper != null)
+    		mapshaper.close();
+    	if(qgis != null)
+    		qgis.close();
+    }
+
+    private static ResourceLimiter.Reservation reserve(StepExecutor step, Command cmd) {
+    	try(var _ = Trace.span("wait", cmd.parts.getFirst())) {
+    		return limiter.acquire(priority(step), cmd.getCost().getCores(), cmd.getCost().estimateMemory(cmd.getInputBytes()));
+    	}
+    }
+	
+    private static volatile ToolCache toolCache = null;
+    private static volatile boolean pipes = false;
+    
+    /**
+     * Pipes in-memory inputs to the stdin of tools that support it and parses their results
+     * straight from stdout. Not used for calls that go to workers or the tool cache.
+     */
+    public static void usePipes() {
+    	pipes = true;
+    }
+    
+    /**
+     * Keeps the outputs of tool calls in the given directory and reuses them for calls with
+     * the same arguments and input contents.
+     */
+    public static void useToolCache(File directory) {
+    	toolCache = new ToolCache(directory);
+    	log.info("Caching tool outputs in {}", directory);
+    }
+	
     /*package*/ static GeoData run(StepExecutor step, String command, Object... args) throws IOException {
-    	limiter.acquireUninterruptibly();
-    	try(	var cmd = Command.of(step, command, args);
+    	try(var cmd = Command.of(step, command, args)) {
+    		var cache = toolCache;
+    		var key = cache!=null && cmd.isCacheable()?cache.key(cmd.getToolVariant(), cmd.getKeyParts()):null;
+    		if(key != null) {
+    			var cached = cache.load(key, cmd.getResultFile());
+    			if(cached.isPresent()) {
+    				log.info("Reusing cached output of {}", cmd);
+    				var output = GeoData.from(cached.get());
+    				if(step != null)
+    					step.touch(output);
+    				return output;
+    			}
+    		}
+    		var output = execute(step, command, cmd);
+    		if(key != null)
+    			cache.store(key, cmd.getResultFile());
+    		return output;
+    	}
+    }
+	
+    private static GeoData execute(StepExecutor step, String command, Command cmd) throws IOException {
+    	try(	var _ = reserve(step, cmd);
+    			var _ = Trace.span("tool", command, Map.of("command", cmd.toString()));
     			var stdOut = new StdHelper("std", step);
     			var stdErr = new StdHelper("err", step)) {
     		
-    		var pump = new PumpStreamHandler(stdOut.getStream(), stdErr.getStream(), null);
-    		pump.setStopTimeout(Duration.ofSeconds(10));
-        	var executor = DefaultExecutor.builder()
-        		.setExecuteStreamHandler(pump)
-        		.get();
-        	
-        	var result = new CompletableFuture<Integer>();
-        	executor.execute(cmd.toCommandLine(), new ExecuteResultHandler() {
-				@Override
-				public void onProcessFailed(ExecuteException e) {
-					result.completeExceptionally(e);
-				}
-				
-				@Override
-				public void onProcessComplete(int exit) {
-					result.complete(exit);
-				}
-			});
-        	
+    		if(PROCESSES.isCancelled())
+    			throw new CancellationException("Run was cancelled before "+cmd);
+    		
         	try {
-        		while(result.copy().completeOnTimeout(null, 10, TimeUnit.SECONDS).get()==null) {
-            		stdOut.intermediatePrint();
-            		stdErr.intermediatePrint();
-            	}
-        		
-        		if(result.get() != 0) {
-        			throw new RuntimeException("Exitcode "+result.get());
-        		}
+        		GeoData streamed = null;
+        		var workers = mapshaperWorkers;
+        		if(workers != null && command.equals("mapshaper"))
+        			workers.run(List.copyOf(cmd.parts.subList(1, cmd.parts.size())), stdErr.getStream());
+        		else
+        			streamed = runProcess(cmd, stdOut, stdErr);
         		
         		stdOut.intermediatePrint();
         		stdErr.intermediatePrint();
         		
         		GeoData output = GeoData.empty();
- 	            if(cmd.getResultFile() != null) {
+        		if(streamed != null)
+        			output = streamed;
+        		else if(cmd.getResultFile() != null)
  	            	output = GeoData.from(cmd.getResultFile());
- 	            }
+ 	            if(step != null && !output.isEmpty())
+ 	            	step.touch(output);
  	            return output;
         	} catch(Exception e) {
         		var out = stdOut.toString();
@@ -101,11 +206,88 @@ public class Runner {
         		throw new IOException(sb.toString(), e);
         	}
     	}
-    	finally {
-    		limiter.release();
+    }
+
+    /**
+     * Runs the algorithms one after the other in a QGIS worker, see {@link #useQgisWorkers(int)}.
+     */
+    /*package*/ static GeoData runQgisChain(StepExecutor step, GeoData in, List<QgisAlgorithm> algorithms, GeoFormat outFormat) throws IOException {
+    	var names = algorithms.stream().map(QgisAlgorithm::id).collect(Collectors.joining(" > "));
+    	if(step != null)
+    		step.touch(in);
+    	var input = in.toTmpFile(step);
+    	var output = tmpGeojson(step, new OutFile("", outFormat.getExtension()));
+    	ResourceLimiter.Reservation reservation;
+    	try(var _ = Trace.span("wait", "qgis_process")) {
+    		reservation = limiter.acquire(priority(step), Cost.QGIS.getCores(), Cost.QGIS.estimateMemory(Files.size(input)));
+    	}
+    	try(	var _ = reservation;
+    			var _ = Trace.span("tool", "qgis_process", Map.of("command", names));
+    			var stdErr = new StdHelper("err", step)) {
+    		
+    		if(PROCESSES.isCancelled())
+    			throw new CancellationException("Run was cancelled before "+names);
+    		log.info("qgis chain {}", names);
+    		try {
+    			qgisWorkers.run(Map.of(
+    				"input", input.toAbsolutePath().toString(),
+    				"output", output.getAbsolutePath(),
+    				"algorithms", algorithms
+    			), stdErr.getStream());
+    			stdErr.intermediatePrint();
+    		} catch(Exception e) {
+    			throw new IOException("QGIS worker failed for "+Thread.currentThread().getName()+": "+names+"\nerr: "+stdErr, e);
+    		}
     	}
+    	var result = GeoData.from(output);
+    	if(step != null)
+    		step.touch(result);
+    	return result;
     }
 
+	/**
+	 * Returns the result parsed from stdout, if the command writes its result there.
+	 */
+	private static GeoData runProcess(Command cmd, StdHelper stdOut, StdHelper stdErr) throws Exception {
+		ExecuteStreamHandler streams;
+		PipeStreamHandler pipe = null;
+		if(cmd.getStdIn() != null || cmd.isStdOutResult()) {
+			pipe = new PipeStreamHandler(cmd.getStdIn(), cmd.isStdOutResult(), stdOut.getStream(), stdErr.getStream());
+			streams = pipe;
+		} else {
+			var pump = new PumpStreamHandler(stdOut.getStream(), stdErr.getStream(), null);
+			pump.setStopTimeout(Duration.ofSeconds(10));
+			streams = pump;
+		}
+		var executor = DefaultExecutor.builder()
+			.setExecuteStreamHandler(streams)
+			.get();
+		executor.setProcessDestroyer(PROCESSES);
+		
+		var result = new CompletableFuture<Integer>();
+		executor.execute(cmd.toCommandLine(), new ExecuteResultHandler() {
+			@Override
+			public void onProcessFailed(ExecuteException e) {
+				result.completeExceptionally(e);
+			}
+			
+			@Override
+			public void onProcessComplete(int exit) {
+				result.complete(exit);
+			}
+		});
+		
+		while(result.copy().completeOnTimeout(null, 10, TimeUnit.SECONDS).get()==null) {
+			stdOut.intermediatePrint();
+			stdErr.intermediatePrint();
+		}
+		
+		if(result.get() != 0) {
+			throw new RuntimeException("Exitcode "+result.get());
+		}
+		return pipe!=null && cmd.isStdOutResult()?GeoData.from(pipe.result()):null;
+	}
+
     public static final File TMP_DIR;
     static {
     	try {
@@ -123,6 +305,10 @@ public class Runner {
         }
     }
 
+    public static boolean isTmpFile(Path path) {
+    	return path.toAbsolutePath().normalize().startsWith(TMP_DIR.toPath().toAbsolutePath().normalize());
+    }
+
     private static final ConcurrentMap<String, AtomicInteger> TMP_COUNTER = new ConcurrentHashMap<>(); 
 
     public static File tmpGeojson(StepExecutor step, OutFile outFile) {
@@ -133,6 +319,14 @@ public class Runner {
         return f;
     }
 
+    public static File tmpDirectory(StepExecutor step) {
+    	String prefix = step!=null?(step.getId()+"_"):"";
+    	int uniqueCounter = TMP_COUNTER.computeIfAbsent(prefix, _->new AtomicInteger(1)).getAndIncrement();
+    	var dir = new File(TMP_DIR, prefix+"%02d".formatted(uniqueCounter));
+    	dir.mkdirs();
+    	return dir;
+    }
+
     public static record TmpGeojson(String commandPrefix, GeoData content){
         public TmpGeojson(GeoData content) {
             this("", content);
@@ -152,20 +346,55 @@ public class Runner {
     private static class Command implements Closeable {
 
         private final List<String> parts = new ArrayList<>();
+        /*the parts with files replaced by their content hashes*/
+        private final List<String> keyParts = new ArrayList<>();
+        private boolean cacheable = true;
+        /*key parts are only collected with a tool cache, hashing inputs is not free*/
+        private boolean keyed = false;
+        /*if inputs and the result may go through stdin and stdout*/
+        private boolean piping = false;
+        private GeoData stdIn;
+        private boolean stdOutResult = false;
         private final StepExecutor step;
         private File resultFile;
         private ToolVariant toolVariant;
+        private Cost cost;
+        private long inputBytes = 0;
 
         public static Command of(StepExecutor step, String command, Object... commandParts) throws IOException {
             var result = new Command(step);
             result.toolVariant = ToolVariant.getFor(command);
+            result.cost = Cost.of(command);
+            result.keyed = toolCache != null;
+            result.piping = pipes
+            	&& result.toolVariant.isStdInSupported()
+            	&& command.equals("mapshaper")
+            	&& mapshaperWorkers == null
+            	&& toolCache == null
+            	&& hasSingleInput(commandParts);
             result.addCommandParts(new String[] {command});
             result.addCommandParts(commandParts);
             result.toolVariant.modifyArguments(result.parts);
+            result.cacheable &= result.keyed && result.resultFile != null;
             log.info(String.join(" ", result.parts));
             return result;
         }
 
+        /*mapshaper reads only a single input from stdin, combining it with others fails*/
+        private static boolean hasSingleInput(Object[] commandParts) {
+        	return flatten(commandParts).filter(p->p instanceof TmpGeojson || p instanceof GeoData).count() == 1
+        		&& flatten(commandParts).noneMatch("combine-files"::equals);
+        }
+        
+        private static Stream<Object> flatten(Object[] commandParts) {
+        	return Arrays.stream(commandParts).flatMap(p->switch(p) {
+        		case null -> Stream.empty();
+        		case Object[] arr -> flatten(arr);
+        		case Collection<?> col -> flatten(col.toArray());
+        		default -> Stream.of(p);
+        	});
+        }
+
         public CommandLine toCommandLine() {
 			var cmd = new CommandLine(parts.getFirst());
 			parts.stream().skip(1).forEach(p->cmd.addArgument(p, false));
@@ -182,25 +411,44 @@ public class Runner {
             	Objects.requireNonNull(part, ()->"null Argument when executing "+Arrays.toString(commandParts));
             	if(part instanceof String v) {
                 	parts.add(v.replace("\n", ""));
+                	key(()->v.replace("\n", ""));
                 }
             	else if(part instanceof GeoData content) {
-                	parts.add(toolVariant.translateFile(content.toTmpFile(step)));
+                	parts.add(toolVariant.translateFile(input(content)));
+                	key(()->"input:"+content.hash());
                 }
                 else if(part instanceof TmpGeojson json) {
-                    parts.add(json.commandPrefix()+toolVariant.translateFile(json.content().toTmpFile(step)));
+                	//mapshaper reads "-" from stdin, but only for one input
+                	if(piping && stdIn == null && json.commandPrefix().isEmpty() && json.content().isInMemory()) {
+                		stdIn = json.content();
+                		if(step != null)
+                			step.touch(stdIn);
+                		inputBytes += stdIn.estimateBytes();
+                		parts.add("-");
+                	}
+                	else
+                		parts.add(json.commandPrefix()+toolVariant.translateFile(input(json.content())));
+                    key(()->json.commandPrefix()+"input:"+json.content().hash());
                 }
                 else if(part instanceof OutFile outFile) {
-                    resultFile = tmpGeojson(step, outFile);
-                    parts.add(outFile.commandPrefix()+toolVariant.translateFile(resultFile.toPath()));
+                	if(piping && outFile.commandPrefix().isEmpty() && outFile.ext().equals("geojson")) {
+                		stdOutResult = true;
+                		parts.add("-");
+                	}
+                	else {
+                		resultFile = tmpGeojson(step, outFile);
+                		parts.add(outFile.commandPrefix()+toolVariant.translateFile(resultFile.toPath()));
+                	}
+                    key(()->outFile.commandPrefix()+"output."+outFile.ext());
                 }
                 else if(part instanceof List<?> l) {
                 	addCommandParts(l.toArray());
                 }
                 else if(part instanceof File f) {
-                	parts.add(toolVariant.translateFile(f.toPath()));
+                	addFile(f.toPath());
                 }
                 else if(part instanceof Path p) {
-                	parts.add(toolVariant.translateFile(p));
+                	addFile(p);
                 }
                 else if(part instanceof String[] arr) {
                     addCommandParts(arr);
@@ -217,6 +465,30 @@ public class Runner {
             }
         }
 
+        private void addFile(Path path) throws IOException {
+        	parts.add(toolVariant.translateFile(path));
+        	if(!keyed)
+        		return;
+        	//other paths, e.g. output directories, can't be cached
+        	if(Files.isRegularFile(path))
+        		keyParts.add("file:"+FileHashes.sha256(path));
+        	else
+        		cacheable = false;
+        }
+
+        private void key(Supplier<String> part) {
+        	if(keyed)
+        		keyParts.add(part.get());
+        }
+
+        private Path input(GeoData content) throws IOException {
+        	if(step != null)
+        		step.touch(content);
+        	var file = content.toTmpFile(step);
+        	inputBytes += Files.size(file);
+        	return file;
+        }
+
         @Override
         public void close() throws IOException {
         }
@@ -0,0 +1,57 @@
+package io.github.pfwikis.run;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.exec.ProcessDestroyer;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps track of the processes started by the {@link Runner} so that they can be killed,
+ * including their children, when the run is cancelled.
+ */
+@Slf4j
+class RunningProcesses implements ProcessDestroyer {
+
+	private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+	private volatile boolean cancelled = false;
+
+	@Override
+	public boolean add(Process process) {
+		processes.add(process);
+		//a process that started while cancelling would otherwise survive
+		if(cancelled)
+			destroy(process);
+		return true;
+	}
+
+	@Override
+	public boolean remove(Process process) {
+		return processes.remove(process);
+	}
+
+	@Override
+	public int size() {
+		return processes.size();
+	}
+
+	public boolean isCancelled() {
+		return cancelled;
+	}
+
+	public void cancel() {
+		cancelled = true;
+		for(var p:processes) {
+			destroy(p);
+		}
+	}
+
+	private static void destroy(Process process) {
+		log.info("Killing process {}", process.pid());
+		//collect the children first, they are reparented once their parent is gone
+		var children = process.descendants().toList();
+		process.destroyForcibly();
+		children.forEach(ProcessHandle::destroyForcibly);
+	}
+}
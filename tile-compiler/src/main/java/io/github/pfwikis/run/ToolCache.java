@@ -0,0 +1,123 @@
+package io.github.pfwikis.run;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
+
+import com.google.common.hash.Hashing;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Persistent, content addressed cache of tool outputs. A call is identified by the tool and its version,
+ * its arguments and the content hashes of all its input files, so repeating a call skips
+ * running the tool.
+ */
+@Slf4j
+@RequiredArgsConstructor
+class ToolCache {
+
+	/*increase this whenever the way tools are called changes*/
+	private static final int VERSION = 1;
+
+	/*arguments that make a tool print its version, other tools are not cached*/
+	private static final Map<String, List<String>> VERSION_ARGS = Map.of(
+		"ogr2ogr", List.of("--version"),
+		"mapshaper", List.of("--version"),
+		"qgis_process", List.of("--version")
+	);
+
+	private final File directory;
+	private final ConcurrentMap<String, Optional<String>> toolVersions = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns null if the call can't be cached because the version of the tool is unknown.
+	 * The parts are the ones before {@link ToolVariant#modifyArguments}, which only depends
+	 * on the variant, so hashing its name covers the rewritten command line.
+	 */
+	String key(ToolVariant variant, List<String> keyParts) {
+		var tool = keyParts.getFirst();
+		var version = toolVersions.computeIfAbsent(tool, _->version(variant, tool));
+		if(version.isEmpty())
+			return null;
+		var hasher = Hashing.sha256().newHasher()
+			.putInt(VERSION)
+			.putString(variant.name(), StandardCharsets.UTF_8)
+			.putString(version.get(), StandardCharsets.UTF_8).putByte((byte)0);
+		for(var part:keyParts) {
+			hasher.putString(part, StandardCharsets.UTF_8).putByte((byte)0);
+		}
+		return hasher.hash().toString();
+	}
+
+	private static Optional<String> version(ToolVariant variant, String tool) {
+		var args = VERSION_ARGS.get(tool);
+		if(args == null)
+			return Optional.empty();
+		var cmd = new ArrayList<String>();
+		cmd.add(tool);
+		cmd.addAll(args);
+		variant.modifyArguments(cmd);
+		try {
+			var proc = new ProcessBuilder(cmd)
+				.redirectErrorStream(true)
+				.start();
+			var out = IOUtils.toString(proc.getInputStream(), StandardCharsets.UTF_8).strip();
+			if(proc.waitFor() == 0 && !out.isEmpty()) {
+				log.info("Caching outputs of {} {}", tool, out.lines().findFirst().orElse(out));
+				return Optional.of(out);
+			}
+		} catch(IOException e) {
+			log.warn("Could not get the version of {}", tool, e);
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		log.warn("Not caching outputs of {}, its version is unknown", tool);
+		return Optional.empty();
+	}
+
+	private File entry(String key, String extension) {
+		return new File(new File(directory, key.substring(0, 2)), key+"."+extension);
+	}
+
+	Optional<File> load(String key, File resultFile) {
+		var file = entry(key, FilenameUtils.getExtension(resultFile.getName()));
+		return file.isFile()?Optional.of(file):Optional.empty();
+	}
+
+	void store(String key, File resultFile) {
+		if(!resultFile.isFile())
+			return;
+		var target = entry(key, FilenameUtils.getExtension(resultFile.getName()));
+		if(target.isFile())
+			return;
+		Path tmp = null;
+		try {
+			target.getParentFile().mkdirs();
+			tmp = Files.createTempFile(target.getParentFile().toPath(), key, ".tmp");
+			Files.copy(resultFile.toPath(), tmp, StandardCopyOption.REPLACE_EXISTING);
+			Files.move(tmp, target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch(FileAlreadyExistsException e) {
+			//the same call finished concurrently
+		} catch(IOException e) {
+			log.warn("Could not store tool output {}", target, e);
+		} finally {
+			if(tmp != null)
+				tmp.toFile().delete();
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package io.github.pfwikis.run;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.exec.ProcessDestroyer;
+import org.apache.commons.io.FileUtils;
+
+import io.github.pfwikis.util.Jackson;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Long-lived tool processes that run one request after the other, so that a call does not
+ * pay for starting the tool again. Requests are sent as JSON lines to the stdin of an idle
+ * worker, which answers each with one JSON line holding the log of the call. Inputs and
+ * outputs are still passed as files. The worker scripts are in src/main/resources/tools.
+ */
+@Slf4j
+class ToolWorkers implements Closeable {
+
+	private record Request(long id, Object args) {}
+	private record Response(long id, boolean ok, String log, String error) {}
+
+	private final String name;
+	private final List<String> workerCommand;
+	private final int size;
+	private final ProcessDestroyer destroyer;
+	private final LinkedBlockingDeque<Worker> idle = new LinkedBlockingDeque<>();
+	private final AtomicInteger started = new AtomicInteger();
+	private final AtomicLong ids = new AtomicLong();
+
+	ToolWorkers(String name, List<String> workerCommand, int size, ProcessDestroyer destroyer) {
+		this.name = name;
+		this.workerCommand = workerCommand;
+		this.size = size;
+		this.destroyer = destroyer;
+	}
+
+	/**
+	 * Workers running the given script from the tools resources with the given interpreter.
+	 */
+	static ToolWorkers start(String name, String interpreter, String script, int size, ProcessDestroyer destroyer) throws IOException {
+		var file = new File(Runner.TMP_DIR, script);
+		FileUtils.copyURLToFile(Objects.requireNonNull(ToolWorkers.class.getResource("/tools/"+script)), file);
+		return new ToolWorkers(name, List.of(interpreter, file.getAbsolutePath()), size, destroyer);
+	}
+
+	/**
+	 * Sends the arguments to an idle worker and writes the log of the call to the given stream.
+	 */
+	void run(Object args, OutputStream logStream) throws IOException, InterruptedException {
+		var worker = acquire();
+		boolean healthy = false;
+		try {
+			long id = ids.incrementAndGet();
+			worker.in.write(Jackson.JSON.writeValueAsString(new Request(id, args)));
+			worker.in.newLine();
+			worker.in.flush();
+			
+			var line = worker.out.readLine();
+			if(line == null)
+				throw new IOException(name+" worker "+worker.process.pid()+" exited");
+			var response = Jackson.JSON.readValue(line, Response.class);
+			if(response.id() != id)
+				throw new IOException(name+" worker answered "+response.id()+" to request "+id);
+			healthy = true;
+			
+			if(response.log() != null)
+				logStream.write(response.log().getBytes(StandardCharsets.UTF_8));
+			if(!response.ok())
+				throw new IOException(name+" failed: "+response.error());
+		} finally {
+			if(healthy) {
+				idle.addFirst(worker);
+			} else {
+				//the worker is out of sync with its requests or gone
+				worker.destroy();
+				started.decrementAndGet();
+			}
+		}
+	}
+
+	private Worker acquire() throws IOException, InterruptedException {
+		while(true) {
+			var worker = idle.pollFirst();
+			if(worker != null)
+				return worker;
+			if(started.incrementAndGet() <= size) {
+				try {
+					return new Worker();
+				} catch(IOException | RuntimeException e) {
+					started.decrementAndGet();
+					throw e;
+				}
+			}
+			started.decrementAndGet();
+			//waits only shortly, a slot frees up without an idle worker when one dies
+			worker = idle.pollFirst(1, TimeUnit.SECONDS);
+			if(worker != null)
+				return worker;
+		}
+	}
+
+	@Override
+	public void close() {
+		Worker worker;
+		while((worker = idle.pollFirst()) != null) {
+			worker.close();
+		}
+	}
+
+	private class Worker {
+		private final Process process;
+		private final BufferedWriter in;
+		private final BufferedReader out;
+
+		Worker() throws IOException {
+			process = new ProcessBuilder(workerCommand)
+				.redirectError(Redirect.INHERIT)
+				.start();
+			destroyer.add(process);
+			in = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+			out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+			log.info("Started {} worker {}", name, process.pid());
+		}
+
+		/*closing stdin lets the worker finish its queue and exit on its own*/
+		void close() {
+			try {
+				in.close();
+			} catch(IOException e) {
+				destroy();
+				return;
+			}
+			destroyer.remove(process);
+		}
+
+		void destroy() {
+			destroyer.remove(process);
+			process.destroyForcibly();
+		}
+	}
+}
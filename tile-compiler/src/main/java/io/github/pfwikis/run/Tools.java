@@ -1,10 +1,18 @@
 package io.github.pfwikis.run;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.apache.commons.io.FileUtils;
 
 import io.github.pfwikis.layercompiler.steps.model.StepExecutor;
 import io.github.pfwikis.layercompiler.steps.model.data.GeoData;
+import io.github.pfwikis.model.FeatureCollection;
 
 public class Tools {
 
@@ -13,6 +21,15 @@ public class Tools {
     }
 
 	public static GeoData qgis(StepExecutor step, String qgisCommand, String outputName, GeoData in, Object... args) throws IOException {
+		return qgis(step, qgisCommand, outputName, GeoFormat.GEOJSON, in, args);
+	}
+
+	public static GeoData qgis(StepExecutor step, String qgisCommand, String outputName, GeoFormat outFormat, GeoData in, Object... args) throws IOException {
+		if(Runner.hasQgisWorkers()) {
+			var algorithm = QgisAlgorithm.ofArgs(qgisCommand, outputName, args);
+			if(algorithm != null)
+				return Runner.runQgisChain(step, in, List.of(algorithm), outFormat);
+		}
         return Runner.run(
         	step,
             "qgis_process",
@@ -23,21 +40,96 @@ public class Tools {
             "--area_units=m2",
             "--ellipsoid=EPSG:4326",
             new Runner.TmpGeojson("--INPUT=", in),
-            new Runner.OutFile("--"+outputName+"="),
+            new Runner.OutFile("--"+outputName+"=", outFormat.getExtension()),
             args
         );
     }
 
+	public static GeoData qgisChain(StepExecutor step, GeoData in, QgisAlgorithm... algorithms) throws IOException {
+		return qgisChain(step, GeoFormat.GEOJSON, in, algorithms);
+	}
+
+	/**
+	 * Runs the algorithms one after the other, each on the output of the one before. With QGIS
+	 * workers the whole chain runs in one process and the intermediate layers stay in memory,
+	 * otherwise every algorithm is its own qgis_process call.
+	 */
+	public static GeoData qgisChain(StepExecutor step, GeoFormat outFormat, GeoData in, QgisAlgorithm... algorithms) throws IOException {
+		if(Runner.hasQgisWorkers())
+			return Runner.runQgisChain(step, in, List.of(algorithms), outFormat);
+		var current = in;
+		for(int i=0;i<algorithms.length;i++) {
+			var algorithm = algorithms[i];
+			//intermediate results only go from tool to tool
+			var format = i==algorithms.length-1?outFormat:GeoFormat.FLATGEOBUF;
+			current = qgis(step, algorithm.id(), algorithm.outputName(), format, current, algorithm.params());
+		}
+		return current;
+	}
+
     public static GeoData mapshaper(StepExecutor step, GeoData in, Object... args) throws IOException {
+    	return mapshaper(step, GeoFormat.GEOJSON, in, args);
+    }
+
+    public static GeoData mapshaper(StepExecutor step, GeoFormat outFormat, GeoData in, Object... args) throws IOException {
         return Runner.run(
         	step,
             "mapshaper", "-i", new Runner.TmpGeojson(in),
             args,
-            "-o", new Runner.OutFile(), "format=geojson", "geojson-type=FeatureCollection",
+            "-o", new Runner.OutFile("", outFormat.getExtension()), "format="+outFormat.getMapshaperFormat(),
+            outFormat==GeoFormat.GEOJSON?"geojson-type=FeatureCollection":List.of(),
             "precision=0.00000001"
         );
     }
     
+    /**
+     * Runs the same commands on all inputs in one mapshaper call, every input as its own layer.
+     * The results are returned in the order of the inputs.
+     */
+    public static List<GeoData> mapshaperBatch(StepExecutor step, List<GeoData> ins, Object... args) throws IOException {
+    	var layers = IntStream.range(0, ins.size()).mapToObj(i->"slice"+i).toList();
+    	var outDir = Runner.tmpDirectory(step);
+    	Runner.run(
+    		step,
+            "mapshaper", "-i", "combine-files", ins.stream().map(Runner.TmpGeojson::new).toList(),
+            "-target", "*",
+            "-rename-layers", String.join(",", layers),
+            args,
+            "-o", outDir, "format=geojson", "geojson-type=FeatureCollection",
+            "precision=0.00000001"
+        );
+    	return readLayers(step, outDir, layers);
+    }
+    
+    /**
+     * Reads the layers mapshaper wrote into the directory, in the given order. The directory
+     * is deleted once all of them are released.
+     */
+    /*package*/ static List<GeoData> readLayers(StepExecutor step, File outDir, List<String> layers) throws IOException {
+    	var files = outDir.listFiles();
+    	if(files == null)
+    		throw new IOException("mapshaper did not write the output directory "+outDir);
+    	//the directory goes once the last result using it is released
+    	var unreleased = new AtomicInteger(layers.size());
+    	var result = new ArrayList<GeoData>(layers.size());
+    	for(var layer:layers) {
+    		//mapshaper does not write layers that ended up empty
+    		var data = Arrays.stream(files)
+    			.filter(f->f.getName().startsWith(layer+"."))
+    			.findAny()
+    			.map(GeoData::from)
+    			.orElseGet(()->GeoData.from(new FeatureCollection()));
+    		data.onRelease(()->{
+    			if(unreleased.decrementAndGet() == 0)
+    				FileUtils.deleteQuietly(outDir);
+    		});
+    		if(step != null)
+    			step.touch(data);
+    		result.add(data);
+    	}
+    	return result;
+    }
+    
     public static GeoData mapshaper0(StepExecutor step, Object... args) throws IOException {
     	return Runner.run(
     		step,
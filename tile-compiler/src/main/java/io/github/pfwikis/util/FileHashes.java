@@ -0,0 +1,32 @@
+package io.github.pfwikis.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+/**
+ * Content hashes of files, remembered by path, size and modification time. Large sources
+ * like the gpkg are hashed once per run instead of once per use.
+ */
+public class FileHashes {
+
+	private static final ConcurrentMap<FileStamp, HashCode> HASHES = new ConcurrentHashMap<>();
+
+	private record FileStamp(Path path, long size, long lastModified) {}
+
+	public static HashCode sha256(Path path) throws IOException {
+		var abs = path.toAbsolutePath().normalize();
+		var stamp = new FileStamp(abs, Files.size(abs), Files.getLastModifiedTime(abs).toMillis());
+		var hash = HASHES.get(stamp);
+		if(hash == null) {
+			hash = com.google.common.io.Files.asByteSource(abs.toFile()).hash(Hashing.sha256());
+			HASHES.put(stamp, hash);
+		}
+		return hash;
+	}
+}
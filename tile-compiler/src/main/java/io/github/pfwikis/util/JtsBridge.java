@@ -0,0 +1,149 @@
+package io.github.pfwikis.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.LineString;
+import org.locationtech.jts.geom.LinearRing;
+import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.MultiPoint;
+import org.locationtech.jts.geom.MultiPolygon;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.geojson.GeoJsonReader;
+
+import io.github.pfwikis.model.Geometry;
+import io.github.pfwikis.model.LngLat;
+
+/**
+ * Converts between our geometries and JTS geometries without a GeoJSON round trip. Every
+ * ring is copied once into a packed array that backs the JTS coordinate sequence.
+ */
+public class JtsBridge {
+
+	private static final GeometryFactory FACTORY = new GeometryFactory(PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+
+	/**
+	 * Geometries JTS can't build directly, e.g. polygons without rings or with unclosed or
+	 * too short rings, go through the GeoJSON reader like they did before this class existed.
+	 */
+	public static org.locationtech.jts.geom.Geometry toJts(Geometry geometry) {
+		try {
+			return convert(geometry);
+		} catch(IllegalArgumentException e) {
+			try {
+				return new GeoJsonReader().read(Jackson.JSON.writeValueAsString(geometry));
+			} catch(ParseException | RuntimeException e2) {
+				e.addSuppressed(e2);
+				throw e;
+			}
+		}
+	}
+
+	private static org.locationtech.jts.geom.Geometry convert(Geometry geometry) {
+		return switch(geometry) {
+			case null -> null;
+			case Geometry.Point p -> FACTORY.createPoint(sequence(List.of(p.getCoordinates())));
+			case Geometry.MultiPoint p -> FACTORY.createMultiPoint(sequence(p.getCoordinates()));
+			case Geometry.LineString l -> FACTORY.createLineString(sequence(l.getCoordinates()));
+			case Geometry.MultiLineString l -> FACTORY.createMultiLineString(l.getCoordinates().stream()
+				.map(line->FACTORY.createLineString(sequence(line)))
+				.toArray(LineString[]::new));
+			case Geometry.Polygon p -> polygon(p.getCoordinates());
+			case Geometry.MultiPolygon p -> FACTORY.createMultiPolygon(p.getCoordinates().stream()
+				.map(JtsBridge::polygon)
+				.toArray(Polygon[]::new));
+			default -> throw new IllegalArgumentException("Unknown geometry "+geometry.getClass());
+		};
+	}
+
+	/**
+	 * Returns null for empty geometries as they have no representation in our model.
+	 */
+	public static Geometry fromJts(org.locationtech.jts.geom.Geometry geometry) {
+		if(geometry == null || geometry.isEmpty())
+			return null;
+		return switch(geometry) {
+			case Point p -> {
+				var g = new Geometry.Point();
+				g.setCoordinates(points(p.getCoordinateSequence()).getFirst());
+				yield g;
+			}
+			case MultiPoint p -> {
+				var g = new Geometry.MultiPoint();
+				var points = new ArrayList<LngLat>(p.getNumGeometries());
+				for(int i=0;i<p.getNumGeometries();i++)
+					points.add(points(((Point)p.getGeometryN(i)).getCoordinateSequence()).getFirst());
+				g.setCoordinates(points);
+				yield g;
+			}
+			case LineString l -> {
+				var g = new Geometry.LineString();
+				g.setCoordinates(points(l.getCoordinateSequence()));
+				yield g;
+			}
+			case MultiLineString l -> {
+				var g = new Geometry.MultiLineString();
+				var lines = new ArrayList<List<LngLat>>(l.getNumGeometries());
+				for(int i=0;i<l.getNumGeometries();i++)
+					lines.add(points(((LineString)l.getGeometryN(i)).getCoordinateSequence()));
+				g.setCoordinates(lines);
+				yield g;
+			}
+			case Polygon p -> {
+				var g = new Geometry.Polygon();
+				g.setCoordinates(rings(p));
+				yield g;
+			}
+			case MultiPolygon p -> {
+				var g = new Geometry.MultiPolygon();
+				var polygons = new ArrayList<List<List<LngLat>>>(p.getNumGeometries());
+				for(int i=0;i<p.getNumGeometries();i++)
+					polygons.add(rings((Polygon)p.getGeometryN(i)));
+				g.setCoordinates(polygons);
+				yield g;
+			}
+			default -> throw new IllegalArgumentException("Unsupported geometry "+geometry.getGeometryType());
+		};
+	}
+
+	private static Polygon polygon(List<List<LngLat>> rings) {
+		if(rings.isEmpty())
+			throw new IllegalArgumentException("Polygon without rings");
+		var shell = FACTORY.createLinearRing(sequence(rings.getFirst()));
+		var holes = rings.stream()
+			.skip(1)
+			.map(r->FACTORY.createLinearRing(sequence(r)))
+			.toArray(LinearRing[]::new);
+		return FACTORY.createPolygon(shell, holes);
+	}
+
+	private static CoordinateSequence sequence(List<LngLat> points) {
+		var packed = new double[points.size()*2];
+		for(int i=0;i<points.size();i++) {
+			packed[2*i] = points.get(i).lng();
+			packed[2*i+1] = points.get(i).lat();
+		}
+		return new PackedCoordinateSequence.Double(packed, 2, 0);
+	}
+
+	private static List<List<LngLat>> rings(Polygon polygon) {
+		var rings = new ArrayList<List<LngLat>>(polygon.getNumInteriorRing()+1);
+		rings.add(points(polygon.getExteriorRing().getCoordinateSequence()));
+		for(int i=0;i<polygon.getNumInteriorRing();i++)
+			rings.add(points(polygon.getInteriorRingN(i).getCoordinateSequence()));
+		return rings;
+	}
+
+	private static List<LngLat> points(CoordinateSequence sequence) {
+		var points = new ArrayList<LngLat>(sequence.size());
+		for(int i=0;i<sequence.size();i++)
+			points.add(new LngLat(sequence.getX(i), sequence.getY(i)));
+		return points;
+	}
+}
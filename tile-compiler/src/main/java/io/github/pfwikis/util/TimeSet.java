@@ -49,6 +49,17 @@ public class TimeSet {
 		return set.asRanges().stream().map(TimeRange::from).collect(Collectors.toSet());
 	}
 
+	public List<TimeRange> asRangeList() {
+		return set.asRanges().stream().map(TimeRange::from).toList();
+	}
+
+	/**
+	 * The smallest range containing all of this set.
+	 */
+	public TimeRange span() {
+		return TimeRange.from(set.span());
+	}
+
 	public void removeAll(Collection<TimeRange> ranges) {
 		ranges.forEach(r->set.remove(r.toGuavaRange()));
 	}
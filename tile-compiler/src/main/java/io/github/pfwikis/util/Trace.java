@@ -0,0 +1,106 @@
+package io.github.pfwikis.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Collects spans of the pipeline run and writes them in the chrome trace event format,
+ * which can be opened with chrome://tracing or https://ui.perfetto.dev.
+ */
+@Slf4j
+public class Trace {
+
+	private static volatile boolean enabled = false;
+	private static final long START = System.nanoTime();
+	private static final ConcurrentLinkedQueue<Event> EVENTS = new ConcurrentLinkedQueue<>();
+
+	private record Event(String name, String cat, long start, long end, long tid, String thread, Map<String, String> args) {}
+
+	public static void enable() {
+		enabled = true;
+	}
+
+	public static Span span(String category, String name) {
+		return span(category, name, Map.of());
+	}
+
+	public static Span span(String category, String name, Map<String, String> args) {
+		if(!enabled)
+			return Span.NOOP;
+		return new Span(category, name, args, System.nanoTime());
+	}
+
+	public static class Span implements Closeable {
+		private static final Span NOOP = new Span(null, null, null, 0);
+
+		private final String category;
+		private final String name;
+		private final Map<String, String> args;
+		private final long start;
+
+		private Span(String category, String name, Map<String, String> args, long start) {
+			this.category = category;
+			this.name = name;
+			this.args = args;
+			this.start = start;
+		}
+
+		@Override
+		public void close() {
+			if(this == NOOP)
+				return;
+			var thread = Thread.currentThread();
+			EVENTS.add(new Event(name, category, start, System.nanoTime(), thread.threadId(), thread.getName(), args));
+		}
+	}
+
+	public static void write(File file) {
+		if(!enabled)
+			return;
+		var events = new ArrayList<Map<String, Object>>();
+		var threadNames = new HashMap<Long, String>();
+		for(var e:EVENTS) {
+			var args = new LinkedHashMap<String, String>(e.args());
+			args.put("thread", e.thread());
+			events.add(Map.of(
+				"name", e.name(),
+				"cat", e.cat(),
+				"ph", "X",
+				"ts", micros(e.start()),
+				"dur", micros(e.end())-micros(e.start()),
+				"pid", 1,
+				"tid", e.tid(),
+				"args", args
+			));
+			threadNames.putIfAbsent(e.tid(), e.thread());
+		}
+		for(var t:threadNames.entrySet()) {
+			events.add(Map.of(
+				"name", "thread_name",
+				"ph", "M",
+				"pid", 1,
+				"tid", t.getKey(),
+				"args", Map.of("name", t.getValue())
+			));
+		}
+		try {
+			Jackson.JSON.writeValue(file, Map.of("traceEvents", (List<?>)events));
+			log.info("Wrote trace with {} events to {}", events.size(), file);
+		} catch(RuntimeException e) {
+			log.warn("Could not write trace to {}", file, e);
+		}
+	}
+
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos-START);
+	}
+}
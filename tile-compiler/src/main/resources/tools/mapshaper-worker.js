@@ -0,0 +1,45 @@
+// Runs mapshaper commands sent as JSON lines on stdin one after the other and answers every
+// request with a single JSON line on stdout. Everything mapshaper prints is returned as the
+// log of the request it belongs to.
+const readline = require('readline');
+const path = require('path');
+const { execSync } = require('child_process');
+
+function loadMapshaper() {
+	try {
+		return require('mapshaper');
+	} catch(e) {
+		//mapshaper is usually installed globally, which is not on the module path
+		const globalRoot = execSync('npm root -g').toString().trim();
+		return require(path.join(globalRoot, 'mapshaper'));
+	}
+}
+
+const mapshaper = loadMapshaper();
+const answer = process.stdout.write.bind(process.stdout);
+let log = [];
+const capture = chunk => {
+	log.push(String(chunk));
+	return true;
+};
+process.stdout.write = capture;
+process.stderr.write = capture;
+
+async function run(request) {
+	log = [];
+	let error = null;
+	try {
+		await mapshaper.runCommands(request.args);
+	} catch(e) {
+		error = String(e && e.stack || e);
+	}
+	answer(JSON.stringify({id: request.id, ok: error === null, log: log.join(''), error: error}) + '\n');
+}
+
+let queue = Promise.resolve();
+const lines = readline.createInterface({input: process.stdin});
+lines.on('line', line => {
+	const request = JSON.parse(line);
+	queue = queue.then(() => run(request));
+});
+lines.on('close', () => queue.then(() => process.exit(0)));
@@ -0,0 +1,89 @@
+# Runs chains of QGIS processing algorithms sent as JSON lines on stdin one after the other
+# and answers every request with a single JSON line on stdout. The intermediate layers of a
+# chain are kept in memory, only its input and final output are files.
+import json
+import sys
+import traceback
+
+from qgis.core import (QgsApplication, QgsProcessingContext, QgsProcessingFeedback,
+	QgsProperty, QgsUnitTypes)
+from qgis.analysis import QgsNativeAlgorithms
+
+app = QgsApplication([], False)
+app.initQgis()
+
+from processing.core.Processing import Processing
+Processing.initialize()
+if QgsApplication.processingRegistry().providerById('native') is None:
+	QgsApplication.processingRegistry().addProvider(QgsNativeAlgorithms())
+import processing
+
+
+class LogFeedback(QgsProcessingFeedback):
+	def __init__(self):
+		super().__init__()
+		self.log = []
+
+	def pushInfo(self, info):
+		self.log.append(info)
+
+	def pushWarning(self, warning):
+		self.log.append(warning)
+
+	def reportError(self, error, fatalError=False):
+		self.log.append(error)
+
+
+# the same settings Tools.qgis passes to qgis_process
+def create_context():
+	context = QgsProcessingContext()
+	context.setEllipsoid('EPSG:4326')
+	context.setDistanceUnit(QgsUnitTypes.DistanceMeters)
+	context.setAreaUnit(QgsUnitTypes.AreaSquareMeters)
+	return context
+
+
+def parameter(raw):
+	if raw.startswith('expression:'):
+		return QgsProperty.fromExpression(raw[len('expression:'):])
+	return raw
+
+
+def run(args, feedback):
+	context = create_context()
+	current = args['input']
+	algorithms = args['algorithms']
+	for i, algorithm in enumerate(algorithms):
+		params = {}
+		for p in algorithm['params']:
+			name, _, raw = p[2:].partition('=')
+			params[name] = parameter(raw)
+		params['INPUT'] = current
+		last = i == len(algorithms) - 1
+		params[algorithm['outputName']] = args['output'] if last else 'TEMPORARY_OUTPUT'
+		result = processing.run(algorithm['id'], params, context=context, feedback=feedback)
+		current = result[algorithm['outputName']]
+
+
+def main():
+	answer = sys.stdout
+	# keep stdout clean for the answers
+	sys.stdout = sys.stderr
+	for line in sys.stdin:
+		request = json.loads(line)
+		feedback = LogFeedback()
+		error = None
+		try:
+			run(request['args'], feedback)
+		except Exception:
+			error = traceback.format_exc()
+		answer.write(json.dumps({
+			'id': request['id'],
+			'ok': error is None,
+			'log': '\n'.join(feedback.log),
+			'error': error
+		}) + '\n')
+		answer.flush()
+
+
+main()
@@ -0,0 +1,122 @@
+package io.github.pfwikis.layercompiler.steps.model.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.model.LngLat;
+import io.github.pfwikis.util.Jackson;
+
+class GeoDataColumnarTest {
+
+	@Test
+	void testRoundTrip() {
+		var json = """
+			{"type":"FeatureCollection","features":[
+				{"type":"Feature","geometry":{"type":"Point","coordinates":[1.5,2.5]},"properties":{"fid":1}},
+				{"type":"Feature","geometry":{"type":"LineString","coordinates":[[0,0],[1,1]]},"properties":{"fid":1}},
+				{"type":"Feature","geometry":{"type":"MultiPolygon","coordinates":[
+					[[[0,0],[1,0],[1,1],[0,0]],[[0.2,0.2],[0.8,0.2],[0.8,0.8],[0.2,0.2]]],
+					[[[5,5],[6,5],[6,6],[5,5]]]
+				]},"properties":{"label":"b","timeStart":4}},
+				{"type":"Feature","geometry":null,"properties":{"fid":2},"extra":true}
+			]}
+			""";
+		var fc = Jackson.JSON.readValue(json, FeatureCollection.class);
+		var data = GeoData.from(fc);
+		
+		assertThat(data.toFeatureCollection()).usingRecursiveComparison().isEqualTo(fc);
+		assertThat(Jackson.JSON.readValue(data.toBytes(), FeatureCollection.class))
+			.usingRecursiveComparison().isEqualTo(fc);
+	}
+	
+	@Test
+	void testMixedMultiPartFeatures() {
+		var fc = Jackson.JSON.readValue("""
+			{"type":"FeatureCollection","features":[
+				{"type":"Feature","geometry":{"type":"MultiPolygon","coordinates":[
+					[[[0,0],[1,0],[1,1],[0,0]],[[0.2,0.2],[0.8,0.2],[0.8,0.8],[0.2,0.2]]],
+					[[[5,5],[6,5],[6,6],[5,5]]]
+				]},"properties":{"fid":1}},
+				{"type":"Feature","geometry":null,"properties":{"fid":2}},
+				{"type":"Feature","geometry":{"type":"MultiLineString","coordinates":[[[7,7],[8,8]],[[9,9],[10,10],[11,11]]]},"properties":{"fid":3}},
+				{"type":"Feature","geometry":{"type":"MultiPoint","coordinates":[[20,20],[21,21]]},"properties":{"fid":4}},
+				{"type":"Feature","geometry":{"type":"Polygon","coordinates":[
+					[[0,0],[2,0],[2,2],[0,0]],[[0.5,0.5],[1,0.5],[1,1],[0.5,0.5]]
+				]},"properties":{"fid":5}},
+				{"type":"Feature","geometry":{"type":"MultiPolygon","coordinates":[
+					[[[30,30],[31,30],[31,31],[30,30]]],
+					[[[40,40],[41,40],[41,41],[40,40]],[[40.2,40.2],[40.5,40.2],[40.5,40.5],[40.2,40.2]]]
+				]},"properties":{"fid":6}}
+			]}
+			""", FeatureCollection.class);
+		var data = GeoData.from(fc);
+		
+		assertThat(data.toFeatureCollection()).usingRecursiveComparison().isEqualTo(fc);
+		assertThat(Jackson.JSON.readValue(data.toBytes(), FeatureCollection.class))
+			.usingRecursiveComparison().isEqualTo(fc);
+		
+		var ranges = new ArrayList<String>();
+		data.mapCoordinates((_, from, to)->ranges.add(from+"-"+to));
+		assertThat(ranges).containsExactly("0-24", "24-34", "34-38", "38-54", "54-78");
+	}
+	
+	@Test
+	void testCopiesProperties() {
+		var fc = Jackson.JSON.readValue("""
+			{"type":"FeatureCollection","features":[
+				{"type":"Feature","geometry":{"type":"Point","coordinates":[1,2]},"properties":{"fid":1}},
+				{"type":"Feature","geometry":{"type":"Point","coordinates":[3,4]},"properties":{"fid":1}}
+			]}
+			""", FeatureCollection.class);
+		var data = GeoData.from(fc);
+		
+		var first = data.toFeatureCollection();
+		first.getFeatures().getFirst().getProperties().setFid(5L);
+		
+		assertThat(first.getFeatures().get(1).getProperties().getFid()).isEqualTo(1L);
+		assertThat(data.toFeatureCollection().getFeatures().getFirst().getProperties().getFid()).isEqualTo(1L);
+	}
+	
+	@Test
+	void testMapProperties() {
+		var fc = Jackson.JSON.readValue("""
+			{"type":"FeatureCollection","features":[
+				{"type":"Feature","geometry":{"type":"Point","coordinates":[1,2]},"properties":{"fid":1}},
+				{"type":"Feature","geometry":{"type":"Point","coordinates":[3,4]},"properties":{"fid":2}}
+			]}
+			""", FeatureCollection.class);
+		var data = GeoData.from(fc);
+		var changed = data.mapProperties(p->p.setMinzoom(3));
+		
+		assertThat(changed.toFeatureCollection().getFeatures())
+			.allSatisfy(f->assertThat(f.getProperties().getMinzoom()).isEqualTo(3));
+		assertThat(data.toFeatureCollection()).usingRecursiveComparison().isEqualTo(fc);
+	}
+	
+	@Test
+	void testMapCoordinates() {
+		var fc = Jackson.JSON.readValue("""
+			{"type":"FeatureCollection","features":[
+				{"type":"Feature","geometry":{"type":"LineString","coordinates":[[1,2],[3,4]]},"properties":{"fid":1}},
+				{"type":"Feature","geometry":null,"properties":{"fid":2}},
+				{"type":"Feature","geometry":{"type":"Point","coordinates":[5,6]},"properties":{"fid":3}}
+			]}
+			""", FeatureCollection.class);
+		var data = GeoData.from(fc);
+		var ranges = new ArrayList<String>();
+		var changed = data.mapCoordinates((c, from, to)-> {
+			ranges.add(from+"-"+to);
+			for(int i=from;i<to;i+=2)
+				c[i]+=10;
+		});
+		
+		assertThat(ranges).containsExactly("0-4", "4-6");
+		assertThat(changed.toFeatureCollection().getFeatures().getFirst().getGeometry().streamPoints())
+			.containsExactly(new LngLat(11, 2), new LngLat(13, 4));
+		assertThat(data.toFeatureCollection()).usingRecursiveComparison().isEqualTo(fc);
+	}
+}
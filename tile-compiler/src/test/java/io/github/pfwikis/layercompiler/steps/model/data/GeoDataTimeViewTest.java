@@ -0,0 +1,44 @@
+package io.github.pfwikis.layercompiler.steps.model.data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.pfwikis.model.FeatureCollection;
+import io.github.pfwikis.util.Jackson;
+import io.github.pfwikis.util.time.TimeRange;
+
+class GeoDataTimeViewTest {
+
+	private static final FeatureCollection MERGED = Jackson.JSON.readValue("""
+		{"type":"FeatureCollection","features":[
+			{"type":"Feature","geometry":{"type":"Point","coordinates":[1,2]},"properties":{"fid":1,"timeStart":0,"timeEnd":30}},
+			{"type":"Feature","geometry":{"type":"Point","coordinates":[3,4]},"properties":{"fid":2,"timeStart":10,"timeEnd":20}}
+		]}
+		""", FeatureCollection.class);
+
+	@Test
+	void testSliceKey() {
+		var before = GeoData.timeView(MERGED, new TimeRange(0, 10));
+		var during = GeoData.timeView(MERGED, new TimeRange(10, 20));
+		var after = GeoData.timeView(MERGED, new TimeRange(20, 30));
+		
+		assertThat(before.sliceKey()).isEqualTo(after.sliceKey());
+		assertThat(before.sliceKey()).isNotEqualTo(during.sliceKey());
+		assertThat(before.hash()).isNotEqualTo(after.hash());
+		assertThat(before.sliceKey()).isNotEqualTo(GeoData.timeView(MERGED.copy(), new TimeRange(0, 10)).sliceKey());
+	}
+	
+	@Test
+	void testWithSliceTime() {
+		var widened = GeoData.timeView(MERGED, new TimeRange(0, 10)).withSliceTime(new TimeRange(0, 30));
+		
+		//the feature of the gap stays out, the time covers both slices
+		assertThat(widened.toFeatureCollection().getFeatures())
+			.singleElement()
+			.satisfies(f-> {
+				assertThat(f.getProperties().getFid()).isEqualTo(1L);
+				assertThat(f.getProperties().getTime()).isEqualTo(new TimeRange(0, 30));
+			});
+	}
+}
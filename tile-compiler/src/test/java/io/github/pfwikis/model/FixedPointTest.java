@@ -0,0 +1,48 @@
+package io.github.pfwikis.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class FixedPointTest {
+
+	@ParameterizedTest
+	@CsvSource({"0,0", "1.5,-2.25", "-179.9999999,89.9999999", "180,-90", "-214.7,214.7", "12.3456789,-0.0000001"})
+	void testRoundTrip(double lng, double lat) {
+		var packed = FixedPoint.pack(lng, lat);
+		assertThat(FixedPoint.unpack(packed)).isEqualTo(new LngLat(lng, lat));
+		assertThat(FixedPoint.lng(packed)).isEqualTo(lng);
+		assertThat(FixedPoint.lat(packed)).isEqualTo(lat);
+	}
+	
+	@Test
+	void testSnapsToGrid() {
+		assertThat(FixedPoint.pack(1.00000004, -1.00000004)).isEqualTo(FixedPoint.pack(1, -1));
+		assertThat(FixedPoint.pack(1.00000006, 0)).isNotEqualTo(FixedPoint.pack(1, 0));
+	}
+	
+	@Test
+	void testOrdersLikeLngLat() {
+		double[][] sorted = {
+			{-10, -5}, {-10, 0}, {-10, 5},
+			{-0.0000001, 90}, {0, -90}, {0, -0.0000001}, {0, 0}, {0, 0.0000001},
+			{10, -5}, {10, 5}
+		};
+		for(int i=0;i<sorted.length-1;i++) {
+			long a = FixedPoint.pack(sorted[i][0], sorted[i][1]);
+			long b = FixedPoint.pack(sorted[i+1][0], sorted[i+1][1]);
+			assertThat(a).as("%s < %s", sorted[i], sorted[i+1]).isLessThan(b);
+		}
+	}
+	
+	@Test
+	void testRange() {
+		assertThat(FixedPoint.unpack(FixedPoint.pack(214.7483647, -214.7483648)))
+			.isEqualTo(new LngLat(214.7483647, -214.7483648));
+		assertThatThrownBy(()->FixedPoint.pack(214.75, 0)).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(()->FixedPoint.pack(0, -214.75)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,45 @@
+package io.github.pfwikis.run;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class ToolWorkersTest {
+
+	private static ToolWorkers standIn(int size) throws Exception {
+		var java = ProcessHandle.current().info().command().orElse("java");
+		var script = new File(ToolWorkersTest.class.getResource("/StandInWorker.java").toURI());
+		return new ToolWorkers("stand-in", List.of(java, script.getAbsolutePath()), size, new RunningProcesses());
+	}
+
+	@Test
+	void testReusesWorker() throws Exception {
+		try(var workers = standIn(1)) {
+			var log = new ByteArrayOutputStream();
+			workers.run(List.of("-i", "a.geojson", "-o", "b.geojson"), log);
+			workers.run(List.of("-i", "b.geojson", "-o", "c.geojson"), log);
+			
+			assertThat(log.toString(StandardCharsets.UTF_8)).isEqualTo("ran 1ran 2");
+		}
+	}
+
+	@Test
+	void testFailure() throws Exception {
+		try(var workers = standIn(1)) {
+			var log = new ByteArrayOutputStream();
+			assertThatThrownBy(()->workers.run(List.of("-fail"), log))
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("failed");
+			//the worker stays usable after a failed command
+			workers.run(List.of("-i", "a.geojson"), log);
+			assertThat(log.toString(StandardCharsets.UTF_8)).isEqualTo("ran 1ran 2");
+		}
+	}
+}
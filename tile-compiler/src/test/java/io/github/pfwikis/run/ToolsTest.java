@@ -0,0 +1,68 @@
+package io.github.pfwikis.run;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ToolsTest {
+
+	private static void writeLayer(File dir, String layer, long fid) throws IOException {
+		Files.writeString(dir.toPath().resolve(layer+".json"), """
+			{"type":"FeatureCollection","features":[
+				{"type":"Feature","geometry":{"type":"Point","coordinates":[1,2]},"properties":{"fid":%d}}
+			]}
+			""".formatted(fid));
+	}
+
+	@Test
+	void testReadLayersInOrder(@TempDir Path tmp) throws IOException {
+		var dir = tmp.resolve("out").toFile();
+		dir.mkdirs();
+		writeLayer(dir, "slice10", 10);
+		writeLayer(dir, "slice0", 0);
+		writeLayer(dir, "slice2", 2);
+		
+		var layers = List.of("slice0", "slice1", "slice2", "slice10");
+		var result = Tools.readLayers(null, dir, layers);
+		
+		assertThat(result).hasSize(4);
+		assertThat(result.get(0).toFeatureCollection().getFeatures().getFirst().getProperties().getFid()).isEqualTo(0L);
+		//mapshaper does not write empty layers
+		assertThat(result.get(1).toFeatureCollection().getFeatures()).isEmpty();
+		assertThat(result.get(2).toFeatureCollection().getFeatures().getFirst().getProperties().getFid()).isEqualTo(2L);
+		assertThat(result.get(3).toFeatureCollection().getFeatures().getFirst().getProperties().getFid()).isEqualTo(10L);
+	}
+	
+	@Test
+	void testDeletesDirectoryWithLastResult(@TempDir Path tmp) throws IOException {
+		var dir = tmp.resolve("out").toFile();
+		dir.mkdirs();
+		writeLayer(dir, "slice0", 0);
+		writeLayer(dir, "slice1", 1);
+		
+		var result = Tools.readLayers(null, dir, List.of("slice0", "slice1", "slice2"));
+		result.get(0).release();
+		result.get(2).release();
+		assertThat(dir).isDirectory();
+		
+		result.get(1).release();
+		assertThat(dir).doesNotExist();
+	}
+	
+	@Test
+	void testMissingDirectory(@TempDir Path tmp) {
+		var dir = tmp.resolve("missing").toFile();
+		
+		assertThatThrownBy(()->Tools.readLayers(null, dir, List.of("slice0")))
+			.isInstanceOf(IOException.class)
+			.hasMessageContaining("missing");
+	}
+}
@@ -0,0 +1,74 @@
+package io.github.pfwikis.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.io.geojson.GeoJsonReader;
+
+import io.github.pfwikis.model.Geometry;
+
+class JtsBridgeTest {
+
+	private static Geometry parse(String json) {
+		return Jackson.JSON.readValue(json, Geometry.class);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"""
+		{"type":"Point","coordinates":[1.5,-2.5]}""",
+		"""
+		{"type":"MultiPoint","coordinates":[[1,2],[3,4]]}""",
+		"""
+		{"type":"LineString","coordinates":[[0,0],[1,1],[2,0]]}""",
+		"""
+		{"type":"MultiLineString","coordinates":[[[0,0],[1,1]],[[5,5],[6,6],[7,5]]]}""",
+		"""
+		{"type":"Polygon","coordinates":[[[0,0],[4,0],[4,4],[0,4],[0,0]],[[1,1],[1,2],[2,2],[2,1],[1,1]]]}""",
+		"""
+		{"type":"MultiPolygon","coordinates":[
+			[[[0,0],[4,0],[4,4],[0,4],[0,0]],[[1,1],[1,2],[2,2],[2,1],[1,1]]],
+			[[[10,10],[11,10],[11,11],[10,10]]]
+		]}"""
+	})
+	void testRoundTrip(String json) throws Exception {
+		var geometry = parse(json);
+		var jts = JtsBridge.toJts(geometry);
+		
+		assertThat(jts.equalsExact(new GeoJsonReader().read(json))).isTrue();
+		assertThat(JtsBridge.fromJts(jts)).isEqualTo(geometry);
+	}
+	
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"""
+		{"type":"Polygon","coordinates":[]}""",
+		"""
+		{"type":"Polygon","coordinates":[[[0,0],[4,0],[4,4],[0,4]]]}""",
+		"""
+		{"type":"Polygon","coordinates":[[[0,0],[4,0],[0,0]]]}""",
+		"""
+		{"type":"MultiPolygon","coordinates":[[[[0,0],[4,0],[4,4],[0,0]]],[]]}"""
+	})
+	void testDegenerateLikeGeoJsonReader(String json) {
+		var geometry = parse(json);
+		org.locationtech.jts.geom.Geometry expected;
+		try {
+			expected = new GeoJsonReader().read(json);
+		} catch(Exception e) {
+			assertThatThrownBy(()->JtsBridge.toJts(geometry)).isInstanceOf(IllegalArgumentException.class);
+			return;
+		}
+		assertThat(JtsBridge.toJts(geometry).equalsExact(expected)).isTrue();
+	}
+	
+	@Test
+	void testEmptyFromJts() {
+		assertThat(JtsBridge.fromJts(new GeometryFactory().createPolygon())).isNull();
+		assertThat(JtsBridge.fromJts(null)).isNull();
+	}
+}
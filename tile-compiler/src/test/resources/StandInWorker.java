@@ -0,0 +1,23 @@
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.regex.Pattern;
+
+/**
+ * Stands in for the worker scripts of the tools. Answers every request with a short log and
+ * fails requests that contain a "-fail" argument.
+ */
+public class StandInWorker {
+	private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+	public static void main(String[] args) throws Exception {
+		var in = new BufferedReader(new InputStreamReader(System.in));
+		String line;
+		while((line = in.readLine()) != null) {
+			var m = ID.matcher(line);
+			m.find();
+			boolean ok = !line.contains("\"-fail\"");
+			System.out.println("{\"id\":"+m.group(1)+",\"ok\":"+ok+",\"log\":\"ran "+m.group(1)+"\",\"error\":"+(ok?"null":"\"failed\"")+"}");
+			System.out.flush();
+		}
+	}
+}